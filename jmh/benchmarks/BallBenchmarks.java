@@ -0,0 +1,88 @@
+package benchmarks;
+
+import java.awt.Color;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import collisions.Ball;
+import collisions.BallSystem;
+import collisions.GameEnvironment;
+
+/**
+ * The JMH benchmarks of moving balls: one ball, and 10000 balls as objects
+ * or in a ball system, in the lower part of a level of 100 blocks.
+ * @author Barak Talmor
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BallBenchmarks {
+    private static final int STRESS_BALLS = 10000;
+    private static final double DT = 1.0 / 60;
+    private Ball ball;
+    private Ball[] balls;
+    private BallSystem system;
+
+    /**
+     * The method builds the balls.
+     */
+    @Setup
+    public void setUp() {
+        GameEnvironment env = Inputs.environment(100);
+        this.ball = new Ball(400, 560, 5, Color.WHITE, env);
+        this.ball.setVelocity(300, -400);
+        Random rand = new Random(4);
+        this.balls = new Ball[STRESS_BALLS];
+        this.system = new BallSystem(env);
+        for (int b = 0; b < STRESS_BALLS; b++) {
+            double angle = rand.nextDouble() * 2 * Math.PI;
+            double x = 30 + rand.nextDouble() * 740, y = 510 + rand.nextDouble() * 90;
+            this.balls[b] = new Ball(x, y, 5, Color.WHITE, env);
+            this.balls[b].setVelocity(Math.cos(angle) * 500, Math.sin(angle) * 500);
+            this.system.add(x, y, Math.cos(angle) * 500, Math.sin(angle) * 500, 5, Color.WHITE);
+        }
+    }
+
+    /**
+     * @return the x of the ball after one step
+     */
+    @Benchmark
+    public double moveOneStep() {
+        this.ball.moveOneStep(DT);
+        return this.ball.getCenter().getX();
+    }
+
+    /**
+     * @return the x of the first ball after one step of all the balls
+     */
+    @Benchmark
+    public double ballObjectsStep() {
+        for (Ball b : this.balls) {
+            b.moveOneStep(DT);
+        }
+        return this.balls[0].getCenter().getX();
+    }
+
+    /**
+     * @return the number of balls after one step of the ball system
+     */
+    @Benchmark
+    public int ballSystemStep() {
+        this.system.timePassed(DT);
+        return this.system.size();
+    }
+}
@@ -0,0 +1,70 @@
+package benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import collisions.CollisionInfo;
+import collisions.GameEnvironment;
+import geometryprimitives.Line;
+import geometryprimitives.Point;
+
+/**
+ * The JMH benchmarks of the collision queries of the game environment, for
+ * levels of a growing number of blocks.
+ * @author Barak Talmor
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmarks {
+    @Param({"10", "100", "1000", "10000"})
+    private int blocks;
+    private GameEnvironment env;
+    private Line[] lines;
+    private CollisionInfo info;
+    private int i;
+
+    /**
+     * The method builds the environment and the trajectories.
+     */
+    @Setup
+    public void setUp() {
+        this.env = Inputs.environment(this.blocks);
+        this.lines = Inputs.randomLines(new Random(4), 17);
+        this.info = new CollisionInfo(new Point(0, 0), null);
+    }
+
+    /**
+     * @return the x of the closest collision, found through a line
+     */
+    @Benchmark
+    public double closestCollisionOfLine() {
+        CollisionInfo closest = this.env.getClosestCollision(this.lines[this.i++ & (this.lines.length - 1)]);
+        return closest == null ? 0 : closest.collisionPoint().getX();
+    }
+
+    /**
+     * @return the x of the closest collision, found on primitives
+     */
+    @Benchmark
+    public double closestCollisionOfDoubles() {
+        Line l = this.lines[this.i++ & (this.lines.length - 1)];
+        return this.env.getClosestCollision(l.start().getX(), l.start().getY(), l.end().getX(), l.end().getY(),
+                this.info) ? this.info.collisionPoint().getX() : 0;
+    }
+}
@@ -0,0 +1,93 @@
+package benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import geometryprimitives.Line;
+import geometryprimitives.Point;
+import geometryprimitives.Rectangle;
+
+/**
+ * The JMH benchmarks of the geometry primitives, with the inputs of the
+ * matching benchmarks of Inputs.
+ * @author Barak Talmor
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeometryBenchmarks {
+    private Line[] longLines;
+    private Line[] shortLines;
+    private Line[] pointLines;
+    private Rectangle rect;
+    private int i;
+
+    /**
+     * The method builds the inputs.
+     */
+    @Setup
+    public void setUp() {
+        this.longLines = Inputs.randomLines(new Random(1), 100);
+        this.shortLines = Inputs.randomLines(new Random(2), 10);
+        this.pointLines = Inputs.randomLines(new Random(3), 100);
+        this.rect = new Rectangle(375, 275, 50, 25);
+    }
+
+    /**
+     * The method returns the next line of the inputs.
+     * @param lines - the inputs
+     * @return the line
+     */
+    private Line next(Line[] lines) {
+        return lines[this.i++ & (lines.length - 1)];
+    }
+
+    /**
+     * @return the x of the intersection of two lines
+     */
+    @Benchmark
+    public double lineIntersectionWith() {
+        Point p = this.next(this.longLines).intersectionWith(this.next(this.longLines));
+        return p == null ? 0 : p.getX();
+    }
+
+    /**
+     * @return the number of intersection points of a line and a rectangle
+     */
+    @Benchmark
+    public int rectangleIntersectionPoints() {
+        return this.rect.intersectionPoints(this.next(this.longLines)).size();
+    }
+
+    /**
+     * @return the entry parameter of a segment into a rectangle
+     */
+    @Benchmark
+    public double rectangleEntryParam() {
+        Line l = this.next(this.shortLines);
+        return this.rect.entryParam(l.start().getX(), l.start().getY(), l.end().getX(), l.end().getY());
+    }
+
+    /**
+     * @return true if the middle of a line is on the line
+     */
+    @Benchmark
+    public boolean pointIsPointOnLine() {
+        Line line = this.next(this.pointLines);
+        return line.middle().isPointOnLine(line);
+    }
+}
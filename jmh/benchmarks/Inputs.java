@@ -0,0 +1,88 @@
+package benchmarks;
+
+import java.awt.Color;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.Random;
+
+import collisions.Block;
+import collisions.GameEnvironment;
+import geometryprimitives.Line;
+import geometryprimitives.Point;
+import geometryprimitives.Rectangle;
+
+/**
+ * The inputs which the benchmarks share: random segments inside the game
+ * screen, levels of a given number of blocks and text resources.
+ * @author Barak Talmor
+ */
+public final class Inputs {
+    public static final int LINES = 1024;
+
+    /**
+     * The constructor is private, the class only has static methods.
+     */
+    private Inputs() {
+    }
+
+    /**
+     * The method builds random segments inside the game screen.
+     * @param rand - random generator
+     * @param length - the length of every segment
+     * @return array of LINES lines
+     */
+    public static Line[] randomLines(Random rand, double length) {
+        Line[] lines = new Line[LINES];
+        for (int i = 0; i < LINES; i++) {
+            double x = 25 + rand.nextDouble() * 750, y = 45 + rand.nextDouble() * 540;
+            double angle = rand.nextDouble() * 2 * Math.PI;
+            lines[i] = new Line(x, y, x + Math.cos(angle) * length, y + Math.sin(angle) * length);
+        }
+        return lines;
+    }
+
+    /**
+     * The method builds a game environment with the frame of the game and
+     * count blocks tiled over the upper part of the screen.
+     * @param count - the number of blocks
+     * @return the environment
+     */
+    public static GameEnvironment environment(int count) {
+        GameEnvironment env = new GameEnvironment();
+        env.addCollidable(new Block(new Rectangle(new Point(0, 20), 780, 25), null, Color.GRAY, 0));
+        env.addCollidable(new Block(new Rectangle(new Point(0, 20), 25, 650), null, Color.GRAY, 0));
+        env.addCollidable(new Block(new Rectangle(new Point(775, 20), 25, 650), null, Color.GRAY, 0));
+        env.addCollidable(new Block(new Rectangle(new Point(-50, 610), 850, 20), null, Color.GRAY, 0));
+        int cols = (int) Math.ceil(Math.sqrt(count * 2.0));
+        int rows = (int) Math.ceil((double) count / cols);
+        double width = 750.0 / cols, height = 450.0 / rows;
+        for (int i = 0; i < count; i++) {
+            env.addCollidable(new Block(new Rectangle(25 + (i % cols) * width, 50 + (i / cols) * height,
+                    width * 0.9, height * 0.9), null, Color.BLACK, 1));
+        }
+        return env;
+    }
+
+    /**
+     * The method reads a text resource from the class path.
+     * @param path - the path of the resource
+     * @return the text
+     */
+    public static String readResource(String path) {
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path);
+        StringBuilder text = new StringBuilder();
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(is));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                text.append(line).append('\n');
+            }
+            reader.close();
+        } catch (IOException e) {
+            throw new IllegalStateException("Couldn't read " + path, e);
+        }
+        return text.toString();
+    }
+}
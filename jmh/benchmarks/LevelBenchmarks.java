@@ -0,0 +1,87 @@
+package benchmarks;
+
+import java.awt.Color;
+import java.io.StringReader;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import animations.StaticLayer;
+import collisions.Block;
+import collisions.GameEnvironment;
+import geometryprimitives.Rectangle;
+import io.BlocksDefinitionReader;
+
+/**
+ * The JMH benchmarks of building and clearing levels: parsing block
+ * definitions, and adding and clearing 5000 blocks in random order.
+ * @author Barak Talmor
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelBenchmarks {
+    private static final int CLEARED_BLOCKS = 5000;
+    private String definitions;
+    private Block[] blocks;
+    private int[] order;
+
+    /**
+     * The method reads the block definitions and builds the blocks.
+     */
+    @Setup
+    public void setUp() {
+        this.definitions = Inputs.readResource("definitions/standard_block_definitions.txt");
+        this.blocks = new Block[CLEARED_BLOCKS];
+        for (int b = 0; b < CLEARED_BLOCKS; b++) {
+            this.blocks[b] = new Block(new Rectangle(25 + (b % 100) * 7.5, 50 + (b / 100) * 9, 7, 8), null,
+                    Color.BLACK, 1);
+        }
+        Random rand = new Random(5);
+        this.order = new int[CLEARED_BLOCKS];
+        for (int b = 0; b < CLEARED_BLOCKS; b++) {
+            int j = rand.nextInt(b + 1);
+            this.order[b] = this.order[j];
+            this.order[j] = b;
+        }
+    }
+
+    /**
+     * @return true if the definitions have a block of symbol r
+     */
+    @Benchmark
+    public boolean readBlockDefinitions() {
+        return BlocksDefinitionReader.fromReader(new StringReader(this.definitions)).isBlockSymbol("r");
+    }
+
+    /**
+     * @return true if a block is left in the environment
+     */
+    @Benchmark
+    public boolean clearBlocks() {
+        GameEnvironment env = new GameEnvironment();
+        StaticLayer layer = new StaticLayer();
+        for (Block block : this.blocks) {
+            env.addCollidable(block);
+            layer.addBlock(block);
+        }
+        for (int b : this.order) {
+            env.removeCollidable(this.blocks[b]);
+            layer.removeBlock(this.blocks[b]);
+        }
+        return env.contains(this.blocks[0]);
+    }
+}
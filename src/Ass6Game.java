@@ -17,6 +17,8 @@ import biuoop.KeyboardSensor;
 import io.HighScoresTable;
 import io.LevelsTask;
 import io.Task;
+import simulation.Replay;
+import simulation.ReplayKeyboard;
 
 /**
  * The ass3 assignment starter.
@@ -26,7 +28,9 @@ public class Ass6Game {
     static final int LIVES = 7;
 
     /**
-     * The method start the game.
+     * The method start the game. When the arkanoid.replay system property
+     * names a replay file, the recorded session is played in the window
+     * instead of the menu.
      * @param args none
      */
     public static void main(String[] args) {
@@ -39,6 +43,12 @@ public class Ass6Game {
         GUI gui = new GUI("Arknoid", 800, 600);
         AnimationRunner ar = new AnimationRunner(gui);
         KeyboardSensor ks = ar.getGui().getKeyboardSensor();
+        String replayPath = System.getProperty("arkanoid.replay");
+        if (replayPath != null) {
+            playReplay(replayPath, ar, ks);
+            gui.close();
+            return;
+        }
         Menu<Task<Void>> menu = new MenuAnimation<>("Arknoid", ar, ks);
         Menu<Task<Void>> subMenu = new MenuAnimation<>("Arknoid", ar, ks);
         try {
@@ -65,6 +75,26 @@ public class Ass6Game {
         }
     }
 
+    /**
+     * The method plays a recorded session. The keys which are not recorded,
+     * like the pause keys, are still read from the keyboard.
+     * @param path - the path of the replay file
+     * @param ar animation runner
+     * @param ks keyboard sensor
+     */
+    public static void playReplay(String path, AnimationRunner ar, KeyboardSensor ks) {
+        Replay replay;
+        try {
+            replay = Replay.load(path);
+        } catch (IOException e) {
+            System.err.println("Couldn't read the replay " + path + ": " + e.getMessage());
+            return;
+        }
+        ar.setInput(new ReplayKeyboard(replay, ks));
+        new LevelsTask(ar, ks, replay.getLives(), replay.getLevelSet()).run();
+        ar.setInput(null);
+    }
+
     /**
      * The method extracting the level sets file and them to the sub menu.
      * @param subMenu - menu animation
@@ -3,23 +3,37 @@ package animations;
 import biuoop.DrawSurface;
 import biuoop.GUI;
 import biuoop.Sleeper;
+import simulation.TickKeyboard;
 
 /**
  * The class which is to run the animation of the class.
  * @author Barak Talmor
  */
 public class AnimationRunner {
+    public static final double MAX_FRAME_TIME = 0.25;
+    // The frames per second of the default constructor, like 120 or 144 for
+    // screens of a high refresh rate. The levels still move in fixed steps
+    // and draw the frames between two steps blended
+    public static final String FPS_PROPERTY = "arkanoid.fps";
+    // The part of a frame's wait which is spent awake, since a sleep may
+    // wake up late by about a millisecond
+    private static final long SPIN_NANOS = 2000000;
     private GUI gui;
     private int framesPerSecond;
     private Sleeper sleeper;
+    // The start of the last frame of any animation, so a nested run (like
+    // the pause screen) does not count as a long frame of the outer one
+    private long lastFrameNanos;
+    private TickKeyboard input;
 
     /**
-     * The constructor of the AnimationRunner with default framesPerSecond.
+     * The constructor of the AnimationRunner with default framesPerSecond,
+     * 60 unless the arkanoid.fps system property says otherwise.
      * @param gui the screen
      */
     public AnimationRunner(GUI gui) {
         this.gui = gui;
-        this.framesPerSecond = 60;
+        this.framesPerSecond = Math.max(1, Integer.getInteger(FPS_PROPERTY, 60));
         this.sleeper = new biuoop.Sleeper();
     }
 
@@ -43,22 +57,133 @@ public class AnimationRunner {
     }
 
     /**
-     * The method which runs the animation loop.
+     * The method returns the number of frames the runner shows in a second.
+     * @return framesPerSecond
+     */
+    public int getFramesPerSecond() {
+        return this.framesPerSecond;
+    }
+
+    /**
+     * The method sets the keyboard which moves the levels which are run
+     * from now on, for recording or playing a session.
+     * @param input - the keyboard, or null for the keyboard of the gui
+     */
+    public void setInput(TickKeyboard input) {
+        this.input = input;
+    }
+
+    /**
+     * The method returns the keyboard which moves the levels.
+     * @return input, or null if the levels use the keyboard of the gui
+     */
+    public TickKeyboard getInput() {
+        return this.input;
+    }
+
+    /**
+     * The method which runs the animation loop. Every frame gets the real
+     * time passed since the previous frame, up to MAX_FRAME_TIME.
      * @param animation - an animation object
      */
     public void run(Animation animation) {
-        double dt = (double) (1.0 / this.framesPerSecond);
-        int millisecondsPerFrame = 1000 / this.framesPerSecond;
+        this.run(animation, new FrameStats());
+    }
+
+    /**
+     * The method which runs the animation loop, recording the timing of
+     * the frames in the given stats. Frames start on a grid of deadlines
+     * one frame apart, so a late frame does not push the later ones. While
+     * a static animation is idle, its frames are not drawn or shown.
+     * @param animation - an animation object
+     * @param stats - the stats of the frames
+     */
+    public void run(Animation animation, FrameStats stats) {
+        this.loop(animation, stats, true);
+    }
+
+    /**
+     * The method runs the logic of the animation without drawing it, for an
+     * animation which is drawn by another thread. It is paced like run.
+     * @param animation - an animation object
+     * @param stats - the stats of the frames
+     */
+    public void simulate(Animation animation, FrameStats stats) {
+        this.loop(animation, stats, false);
+    }
+
+    /**
+     * The frame loop of run and simulate. Every frame gets the real time
+     * passed since the previous frame, up to MAX_FRAME_TIME, and starts on
+     * the grid of deadlines.
+     * @param animation - an animation object
+     * @param stats - the stats of the frames
+     * @param draw - true for drawing and showing the frames, false for
+     *        passing the animation a null draw surface
+     */
+    private void loop(Animation animation, FrameStats stats, boolean draw) {
+        double nominalDt = 1.0 / this.framesPerSecond;
+        long nanosPerFrame = 1000000000L / this.framesPerSecond;
+        // Stays null until a frame was shown, so the first frame is always drawn
+        DrawSurface blank = null;
+        this.lastFrameNanos = 0;
+        long deadline = System.nanoTime();
         while (!animation.shouldStop()) {
-            long startTime = System.currentTimeMillis(); // timing
-            DrawSurface d = gui.getDrawSurface();
-            animation.doOneFrame(d, dt);
-            gui.show(d);
-            long usedTime = System.currentTimeMillis() - startTime;
-            long milliSecondLeftToSleep = millisecondsPerFrame - usedTime;
-            if (milliSecondLeftToSleep > 0) {
-                this.sleeper.sleepFor(milliSecondLeftToSleep);
+            long now = System.nanoTime();
+            double dt = nominalDt;
+            if (this.lastFrameNanos != 0) {
+                dt = Math.min(MAX_FRAME_TIME, (now - this.lastFrameNanos) / 1e9);
             }
+            this.lastFrameNanos = now;
+            boolean idle = blank != null && animation instanceof StaticAnimation
+                    && ((StaticAnimation) animation).isIdle();
+            if (!draw || idle) {
+                animation.doOneFrame(blank, dt);
+                stats.recordFrame(System.nanoTime() - now);
+            } else {
+                DrawSurface d = gui.getDrawSurface();
+                animation.doOneFrame(d, dt);
+                long updated = System.nanoTime();
+                gui.show(d);
+                long shown = System.nanoTime();
+                stats.recordFrame(updated - now);
+                stats.recordPresent(shown - updated);
+                if (blank == null) {
+                    blank = new BlankDrawSurface(d.getWidth(), d.getHeight());
+                }
+            }
+            deadline = waitFrame(this.sleeper, deadline + nanosPerFrame, nanosPerFrame, !idle, stats);
+        }
+    }
+
+    /**
+     * The method waits until the deadline of the next frame. It sleeps until
+     * SPIN_NANOS before the deadline, since a sleep may wake up late, and
+     * yields the rest of the time away. An idle frame only sleeps. The
+     * render thread paces its frames with it too.
+     * @param sleeper - the sleeper of the waiting thread
+     * @param deadline - when the next frame should start, in nanoseconds
+     * @param nanosPerFrame - the budget of a frame
+     * @param spin - true for waiting the last part of the frame awake
+     * @param stats - the stats of the frames
+     * @return the deadline the next frames are counted from
+     */
+    static long waitFrame(Sleeper sleeper, long deadline, long nanosPerFrame, boolean spin, FrameStats stats) {
+        long now = System.nanoTime();
+        if (now > deadline) {
+            stats.dropFrame();
+            // A frame which is late by more than a frame starts a new grid
+            // instead of rushing the next frames to catch up
+            return now - deadline > nanosPerFrame ? now : deadline;
+        }
+        long milliSecondLeftToSleep = (deadline - now - (spin ? SPIN_NANOS : 0)) / 1000000;
+        if (milliSecondLeftToSleep > 0) {
+            sleeper.sleepFor(milliSecondLeftToSleep);
+        }
+        while (spin && System.nanoTime() < deadline) {
+            Thread.yield();
         }
+        stats.recordOversleep(Math.max(0, System.nanoTime() - deadline));
+        return deadline;
     }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package animations;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.Polygon;
+
+import biuoop.DrawSurface;
+
+/**
+ * A draw surface which draws nothing, for running the logic of a frame
+ * which is not shown.
+ * @author Barak Talmor
+ */
+public class BlankDrawSurface implements DrawSurface {
+    private int width;
+    private int height;
+
+    /**
+     * The constructor of the surface.
+     * @param width - the width of the screen
+     * @param height - the height of the screen
+     */
+    public BlankDrawSurface(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public int getWidth() {
+        return this.width;
+    }
+
+    @Override
+    public int getHeight() {
+        return this.height;
+    }
+
+    @Override
+    public void setColor(Color color) {
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image img) {
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height) {
+    }
+
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int width, int height) {
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int width, int height) {
+    }
+
+    @Override
+    public void drawPolygon(Polygon p) {
+    }
+
+    @Override
+    public void fillPolygon(Polygon p) {
+    }
+
+    @Override
+    public void drawText(int x, int y, String text, int fontSize) {
+    }
+}
@@ -10,11 +10,12 @@ import listeners.Counter;
  * The class which charges on the end screen.
  * @author Barak Talmor
  */
-public class EndScreen implements Animation {
+public class EndScreen implements StaticAnimation {
     private Counter lives;
     private Counter score;
 //    private KeyboardSensor keyboard;
 //    private boolean stop;
+    private ScreenCache screen;
 
     /**
      * The constructor of the end screen.
@@ -25,12 +26,39 @@ public class EndScreen implements Animation {
     public EndScreen(Counter lives, Counter score, KeyboardSensor keyboard) {
         this.lives = lives;
         this.score = score;
+        this.screen = new ScreenCache();
 //        this.stop = false;
 //        this.keyboard = keyboard;
     }
 
     @Override
     public void doOneFrame(DrawSurface d, double dt) {
+        DrawSurface cached = this.screen.update(this.key(), d);
+        if (cached != null) {
+            this.drawEnd(cached);
+        }
+        this.screen.drawOn(d);
+    }
+
+    /**
+     * The method returns the key of the screen, the screen is drawn again
+     * only if the score or the result change.
+     * @return the key
+     */
+    private long key() {
+        return ((long) this.score.getValue() << 1) | (this.lives.getValue() > 0 ? 1 : 0);
+    }
+
+    @Override
+    public boolean isIdle() {
+        return this.screen.isCurrent(this.key());
+    }
+
+    /**
+     * The method draws the result of the game and the score.
+     * @param d - the surface to draw on
+     */
+    private void drawEnd(DrawSurface d) {
         d.setColor(Color.LIGHT_GRAY);
         d.fillRectangle(0, 0, 800, 600);
         d.setColor(Color.BLACK);
@@ -2,15 +2,12 @@ package animations;
 
 import java.awt.Color;
 import java.awt.Image;
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.Map;
 import java.util.TreeMap;
 
-import javax.imageio.ImageIO;
-
 import biuoop.DrawSurface;
 import io.ColorsParser;
+import io.ImageCache;
 
 /**
  * The class of fill.
@@ -19,17 +16,42 @@ import io.ColorsParser;
 public class Fill {
     private Map<Integer, Image> images;
     private Map<Integer, Color> colors;
+    private String[] fills;
+    private int width;
+    private int height;
 
     /**
      * The constructor of fills.
      * @param fills array of string
      */
     public Fill(String[] fills) {
+        this(fills, 0, 0);
+    }
+
+    /**
+     * The constructor of fills of blocks of a known size, the images are
+     * scaled to the size of the block once.
+     * @param fills array of string
+     * @param width - the width of the blocks, 0 for images at their size
+     * @param height - the height of the blocks, 0 for images at their size
+     */
+    public Fill(String[] fills, int width, int height) {
         this.images = new TreeMap<Integer, Image>();
         this.colors = new TreeMap<Integer, Color>();
+        this.fills = fills;
+        this.width = width;
+        this.height = height;
         this.buildsMap(fills);
     }
 
+    /**
+     * The method returns the strings which the fill was built from.
+     * @return fills
+     */
+    public String[] getFills() {
+        return this.fills;
+    }
+
     /**
      * The method takes the strings to colors.
      * @param fills - array of strings with colors or images as string
@@ -37,15 +59,7 @@ public class Fill {
     public void buildsMap(String[] fills) {
         for (int i = 1; i < fills.length; i++) {
             if (fills[i].startsWith("image(")) {
-                Image img = null;
-                try {
-                    String path = fills[i].substring(6, fills[i].length() - 1);
-                    InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path);
-                    img = ImageIO.read(is);
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-                this.images.put(i, img);
+                this.images.put(i, ImageCache.fromString(fills[i], this.width, this.height));
             } else {
                 ColorsParser cp = new ColorsParser();
                 this.colors.put(i, cp.colorFromString(fills[i]));
@@ -0,0 +1,80 @@
+package animations;
+
+/**
+ * Turns the real time between frames into a whole number of fixed simulation
+ * steps, so the game moves at the same speed whatever the frame rate is.
+ * Time which is not enough for a whole step is kept for the next frame.
+ * @author Barak Talmor
+ */
+public class FixedTimestep {
+    public static final double DEFAULT_STEP = 1.0 / 60;
+    // After a long stall the game drops time instead of trying to catch up
+    private static final int MAX_STEPS_PER_FRAME = 5;
+    private double step;
+    private double accumulator;
+
+    /**
+     * The constructor of the fixed timestep with the default step.
+     */
+    public FixedTimestep() {
+        this(DEFAULT_STEP);
+    }
+
+    /**
+     * The constructor of the fixed timestep.
+     * @param step - the seconds of one simulation step
+     */
+    public FixedTimestep(double step) {
+        this.step = step;
+        this.accumulator = 0;
+    }
+
+    /**
+     * The method adds the time of a frame and returns how many steps should
+     * be simulated for it.
+     * @param frameTime - amount of seconds passed since the last frame
+     * @return the number of steps
+     */
+    public int advance(double frameTime) {
+        this.accumulator += frameTime;
+        int steps = (int) Math.floor(this.accumulator / this.step);
+        if (steps > MAX_STEPS_PER_FRAME) {
+            steps = MAX_STEPS_PER_FRAME;
+            this.accumulator = 0;
+        } else {
+            this.accumulator -= steps * this.step;
+        }
+        return steps;
+    }
+
+    /**
+     * The method drops the time which was not simulated yet.
+     */
+    public void reset() {
+        this.accumulator = 0;
+    }
+
+    /**
+     * The method returns the time which is kept for the next frame.
+     * @return accumulator
+     */
+    public double getAccumulator() {
+        return this.accumulator;
+    }
+
+    /**
+     * The method sets the time which is kept for the next frame.
+     * @param accumulator - the seconds which were not simulated yet
+     */
+    public void setAccumulator(double accumulator) {
+        this.accumulator = accumulator;
+    }
+
+    /**
+     * The method returns the seconds of one simulation step.
+     * @return step
+     */
+    public double getStep() {
+        return this.step;
+    }
+}
@@ -0,0 +1,150 @@
+package animations;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * The timing of the frames of an animation: how long the update, the draw
+ * and the present (showing the frame on the gui) took, how much longer than
+ * asked the sleep at the end of a frame was, and how many frames missed
+ * their time budget.
+ * An animation which does not report its drawing has it counted as update.
+ * @author Barak Talmor
+ */
+public class FrameStats {
+    private static final double NANOS_PER_MILLI = 1e6;
+    private LatencyHistogram update;
+    private LatencyHistogram draw;
+    private LatencyHistogram present;
+    private LatencyHistogram oversleep;
+    private long droppedFrames;
+    private long pendingDraw;
+
+    /**
+     * The constructor of empty stats.
+     */
+    public FrameStats() {
+        this.update = new LatencyHistogram();
+        this.draw = new LatencyHistogram();
+        this.present = new LatencyHistogram();
+        this.oversleep = new LatencyHistogram();
+        this.droppedFrames = 0;
+        this.pendingDraw = 0;
+    }
+
+    /**
+     * The method records the drawing part of the current frame.
+     * @param nanos - the duration of the drawing
+     */
+    public void recordDraw(long nanos) {
+        this.draw.record(nanos);
+        this.pendingDraw += nanos;
+    }
+
+    /**
+     * The method records the whole work of a frame, the drawing which was
+     * reported in it is taken out and the rest is counted as update.
+     * @param nanos - the duration of the frame's work
+     */
+    public void recordFrame(long nanos) {
+        this.update.record(nanos - this.pendingDraw);
+        this.pendingDraw = 0;
+    }
+
+    /**
+     * The method records the showing of a frame.
+     * @param nanos - the duration of the present
+     */
+    public void recordPresent(long nanos) {
+        this.present.record(nanos);
+    }
+
+    /**
+     * The method records how much longer a sleep was than asked.
+     * @param nanos - the extra duration of the sleep
+     */
+    public void recordOversleep(long nanos) {
+        this.oversleep.record(nanos);
+    }
+
+    /**
+     * The method counts a frame which took longer than its budget.
+     */
+    public void dropFrame() {
+        this.droppedFrames++;
+    }
+
+    /**
+     * The method returns the number of recorded frames.
+     * @return number of frames
+     */
+    public long getFrames() {
+        return this.update.getCount();
+    }
+
+    /**
+     * The method returns the number of frames which took longer than their
+     * budget.
+     * @return droppedFrames
+     */
+    public long getDroppedFrames() {
+        return this.droppedFrames;
+    }
+
+    /**
+     * The method forgets all the recorded frames.
+     */
+    public void reset() {
+        this.update.reset();
+        this.draw.reset();
+        this.present.reset();
+        this.oversleep.reset();
+        this.droppedFrames = 0;
+        this.pendingDraw = 0;
+    }
+
+    /**
+     * The method writes p50, p99 and max of every part of the frame.
+     * @param out - the writer
+     * @param title - the title of the report
+     */
+    public void report(PrintWriter out, String title) {
+        out.printf("%s: %d frames, %d dropped%n", title, this.getFrames(), this.droppedFrames);
+        this.report(out, "update", this.update);
+        this.report(out, "draw", this.draw);
+        this.report(out, "present", this.present);
+        this.report(out, "oversleep", this.oversleep);
+    }
+
+    /**
+     * The method writes a line of one histogram, in milliseconds.
+     * @param out - the writer
+     * @param name - the name of the part of the frame
+     * @param h - the histogram
+     */
+    private void report(PrintWriter out, String name, LatencyHistogram h) {
+        out.printf("  %-10s p50 %8.3f ms  p99 %8.3f ms  max %8.3f ms%n", name,
+                h.percentile(50) / NANOS_PER_MILLI, h.percentile(99) / NANOS_PER_MILLI,
+                h.getMax() / NANOS_PER_MILLI);
+    }
+
+    /**
+     * The method adds the report to the end of the file.
+     * @param path - path of the file
+     * @param title - the title of the report
+     */
+    public void appendTo(String path, String title) {
+        PrintWriter out = null;
+        try {
+            out = new PrintWriter(new FileWriter(path, true));
+            this.report(out, title);
+        } catch (IOException e) {
+            System.err.println("Failed writing frame stats: " + path);
+        } finally {
+            if (out != null) {
+                out.close();
+            }
+        }
+    }
+}
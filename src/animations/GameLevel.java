@@ -7,10 +7,14 @@ import java.util.List;
 
 import biuoop.KeyboardSensor;
 import collisions.Ball;
+import collisions.BallMover;
+import collisions.BallSystem;
 import collisions.Block;
 import collisions.Collidable;
 import collisions.GameEnvironment;
+import collisions.ImpactScheduler;
 import collisions.Paddle;
+import collisions.ParallelBallStepper;
 import collisions.Velocity;
 import geometryprimitives.Point;
 import geometryprimitives.Rectangle;
@@ -20,6 +24,8 @@ import listeners.BlockRemover;
 import listeners.Counter;
 import listeners.HitListener;
 import listeners.ScoreTrackingListener;
+import simulation.ReplayKeyboard;
+import simulation.TickKeyboard;
 import sprites.LivesIndicator;
 import sprites.NameIndicator;
 import sprites.ScoreIndicator;
@@ -32,6 +38,20 @@ import biuoop.DrawSurface;
  * @author Barak Talmor
  */
 public class GameLevel implements Animation {
+    // The file which the timing of the frames of every level is added to,
+    // nothing is written unless it is set
+    public static final String FRAME_STATS_PROPERTY = "arkanoid.frameStats";
+    // The layout of a saved state: the counters, the paddle, the number of
+    // blocks and their hit points, then the number of balls and theirs
+    private static final int SCORE = 0;
+    private static final int LIVES = 1;
+    private static final int BLOCKS = 2;
+    private static final int BALLS = 3;
+    private static final int RUNNING = 4;
+    private static final int ACCUMULATOR = 5;
+    private static final int PADDLE_X = 6;
+    private static final int BLOCK_STATES = 7;
+    private static final int BALL_SIZE = 4;
     private SpriteCollection sprites;
     private GameEnvironment environment;
     private Counter remainingBlocks;
@@ -43,12 +63,35 @@ public class GameLevel implements Animation {
     private Paddle paddle;
     private KeyboardSensor keyboard;
     private LevelInformation levelInfo;
+    private BallMover ballMover;
+    private BallSystem ballSystem;
+    private FixedTimestep timestep;
+    private StaticLayer staticLayer;
+    private FrameStats frameStats;
+    private List<Ball> balls;
+    private boolean renderPipeline;
+    private SnapshotBuffer snapshots;
+    private List<Block> snapshotBlocks;
+    private long snapshotCount;
+    private RenderThread renderThread;
+    private TickKeyboard input;
+    private List<Block> allBlocks;
+    private HitListener blockRemover;
+    // The places of the balls and the paddle before the last step, and their
+    // real places while a frame between two steps is drawn
+    private double[] lastBallX;
+    private double[] lastBallY;
+    private double[] nextBallX;
+    private double[] nextBallY;
+    private int lastBallCount;
+    private double lastPaddleX;
+    private double nextPaddleX;
 
     /**
      * Constructor of the game.
      * @param levelInfo - an level object
      * @param k - keyboard sensor
-     * @param aR - animation runner
+     * @param aR - animation runner, or null when the level runs without a gui
      * @param score - the counter of the score
      * @param lives - the counter of the remaining lives
      */
@@ -63,6 +106,92 @@ public class GameLevel implements Animation {
         this.running = true;
         this.runner = aR;
         this.keyboard = k;
+        if (aR != null && aR.getInput() != null) {
+            this.setInput(aR.getInput());
+        }
+        this.timestep = new FixedTimestep();
+        this.staticLayer = new StaticLayer();
+        this.frameStats = new FrameStats();
+        this.balls = new ArrayList<Ball>();
+        this.lastBallX = new double[0];
+        this.lastBallY = new double[0];
+        this.nextBallX = new double[0];
+        this.nextBallY = new double[0];
+        this.forgetPlaces();
+        this.renderPipeline = Boolean.getBoolean("arkanoid.renderThread");
+        if (this.input instanceof ReplayKeyboard) {
+            // A replayed level moves its balls like the recorded session
+            ((ReplayKeyboard) this.input).getReplay().applyPhysics(this);
+        } else if (Boolean.getBoolean("arkanoid.ballSystem")) {
+            this.setBallSystem(true);
+        } else if (Boolean.getBoolean("arkanoid.eventPhysics")) {
+            this.setEventDrivenPhysics(true);
+        } else {
+            this.setParallelPhysics(Boolean.getBoolean("arkanoid.parallelPhysics"));
+        }
+    }
+
+    /**
+     * The method chooses if the balls are moved in parallel. It must be
+     * called before the balls are added to the game.
+     * @param parallel - true for moving the balls on a fork-join pool
+     */
+    public void setParallelPhysics(boolean parallel) {
+        this.setBallMover(parallel ? new ParallelBallStepper() : null);
+    }
+
+    /**
+     * The method chooses if the balls are moved by scheduling their next
+     * impacts. It must be called before the balls are added to the game.
+     * @param eventDriven - true for moving the balls by an impact scheduler
+     */
+    public void setEventDrivenPhysics(boolean eventDriven) {
+        this.setBallMover(eventDriven ? new ImpactScheduler(this.environment) : null);
+    }
+
+    /**
+     * The method chooses if the balls are kept in the arrays of a ball
+     * system, for levels with thousands of balls. It must be called before
+     * the balls are added to the game.
+     * @param arrays - true for keeping the balls in a ball system
+     */
+    public void setBallSystem(boolean arrays) {
+        this.setBallMover(arrays ? new BallSystem(this.environment) : null);
+    }
+
+    /**
+     * The method chooses if the level is drawn by a thread of its own, while
+     * the runner's thread only moves it.
+     * @param pipeline - true for drawing on a render thread
+     */
+    public void setRenderThread(boolean pipeline) {
+        this.renderPipeline = pipeline;
+    }
+
+    /**
+     * The method sets the keyboard which moves the level. It is moved to
+     * its next state at the start of every step, so a recorded session
+     * plays again step by step. It must be called before a turn starts.
+     * @param tickKeyboard - the keyboard
+     */
+    public void setInput(TickKeyboard tickKeyboard) {
+        this.input = tickKeyboard;
+        this.keyboard = tickKeyboard;
+    }
+
+    /**
+     * The method replaces the sprite which moves the balls.
+     * @param mover - the new ball mover, or null for balls moving themselves
+     */
+    private void setBallMover(BallMover mover) {
+        if (this.ballMover != null) {
+            this.sprites.removeSprite(this.ballMover);
+        }
+        this.ballMover = mover;
+        this.ballSystem = mover instanceof BallSystem ? (BallSystem) mover : null;
+        if (this.ballMover != null) {
+            this.sprites.addSprite(this.ballMover);
+        }
     }
 
     /**
@@ -86,7 +215,17 @@ public class GameLevel implements Animation {
      * @param s - sprite object
      */
     public void addSprite(Sprite s) {
-        this.sprites.addSprite(s);
+        // A ball system copies the ball, so the object is not kept
+        if (s instanceof Ball && this.ballSystem == null) {
+            this.balls.add((Ball) s);
+        }
+        if (s instanceof Block) {
+            this.staticLayer.addBlock((Block) s);
+        } else if (this.ballMover != null && s instanceof Ball) {
+            this.ballMover.addBall((Ball) s);
+        } else {
+            this.sprites.addSprite(s);
+        }
     }
 
     /**
@@ -94,7 +233,15 @@ public class GameLevel implements Animation {
      * @param s - sprite object
      */
     public void removeSprite(Sprite s) {
-        this.sprites.removeSprite(s);
+        if (s instanceof Block && this.staticLayer.removeBlock((Block) s)) {
+            return;
+        }
+        if (s instanceof Ball) {
+            this.balls.remove(s);
+        }
+        if (this.ballMover == null || !(s instanceof Ball) || !this.ballMover.removeBall((Ball) s)) {
+            this.sprites.removeSprite(s);
+        }
     }
 
     /**
@@ -113,6 +260,64 @@ public class GameLevel implements Animation {
         return this.remainingBlocks.getValue();
     }
 
+    /**
+     * The method return the number of balls which are still in the game.
+     * @return remainingBalls.getValue()
+     */
+    public int getNumberOfRemainingBalls() {
+        return this.remainingBalls.getValue();
+    }
+
+    /**
+     * The method returns the balls which are in the game.
+     * @return a copy of the list of balls
+     */
+    public List<Ball> getBalls() {
+        if (this.ballSystem != null) {
+            return this.ballSystem.getBalls();
+        }
+        return new ArrayList<Ball>(this.balls);
+    }
+
+    /**
+     * The method returns a ball which is in the game, without copying the
+     * list of balls. With a ball system, the ball is a view which is only
+     * valid until the next call.
+     * @param index - the index of the ball, from 0 to the number of
+     *        remaining balls
+     * @return the ball, or null if there is no such ball
+     */
+    public Ball getBall(int index) {
+        if (this.ballSystem != null) {
+            return this.ballSystem.getBall(index);
+        }
+        return index < this.balls.size() ? this.balls.get(index) : null;
+    }
+
+    /**
+     * The method returns the number of balls which are in the game.
+     * @return the number of balls
+     */
+    private int ballCount() {
+        return this.ballSystem != null ? this.ballSystem.size() : this.balls.size();
+    }
+
+    /**
+     * The method returns the ball system which keeps the balls.
+     * @return ballSystem, or null if the balls are objects of their own
+     */
+    public BallSystem getBallSystem() {
+        return this.ballSystem;
+    }
+
+    /**
+     * The method returns the paddle of the current turn.
+     * @return paddle, or null if there is no paddle in the game
+     */
+    public Paddle getPaddle() {
+        return this.paddle != null && this.environment.contains(this.paddle) ? this.paddle : null;
+    }
+
     /**
      * The method organize all indicator sprites and add it to the
      * game.
@@ -131,10 +336,18 @@ public class GameLevel implements Animation {
      * and add them to the game.
      */
     public void initialize() {
-        this.sprites.addSprite(this.levelInfo.getBackground());
+        // The background, the frame and the blocks are drawn by the static layer
+        this.staticLayer.setBackground(this.levelInfo.getBackground());
+        this.sprites.addSprite(this.staticLayer);
         this.buildsFrame();
         this.addIndicatorSprites();
         this.buildsBlocks();
+        // The balls are drawn over the level
+        if (this.ballMover != null) {
+            this.sprites.removeSprite(this.ballMover);
+            this.sprites.addSprite(this.ballMover);
+        }
+        this.allBlocks = this.staticLayer.getBlocks();
     }
 
     /**
@@ -162,9 +375,9 @@ public class GameLevel implements Animation {
      * The method builds the blocks and add them to the game.
      */
     public void buildsBlocks() {
-        HitListener bR = new BlockRemover(this, this.remainingBlocks);
+        this.blockRemover = new BlockRemover(this, this.remainingBlocks);
         HitListener scoreTracking = new ScoreTrackingListener(this.score);
-        List<HitListener> listHL = new ArrayList<HitListener>(Arrays.asList(bR, scoreTracking));
+        List<HitListener> listHL = new ArrayList<HitListener>(Arrays.asList(this.blockRemover, scoreTracking));
         for (Block block : this.levelInfo.blocks()) {
             block.addHitListener(listHL);
             block.addToGame(this);
@@ -182,13 +395,21 @@ public class GameLevel implements Animation {
             ball.addToGame(this);
             ball.setGameEnviornment(this.environment);
         }
-        this.paddle = new Paddle(
-                new Rectangle(400 - this.levelInfo.paddleWidth() / 2, 565, this.levelInfo.paddleWidth(), 15),
-                Color.ORANGE, runner.getGui(), this.levelInfo.paddleSpeed());
+        this.paddle = this.newPaddle();
         this.remainingBalls.increase(this.levelInfo.numberOfBalls());
         paddle.addToGame(this);
     }
 
+    /**
+     * The method builds the paddle of the level at its start place.
+     * @return the paddle
+     */
+    private Paddle newPaddle() {
+        return new Paddle(
+                new Rectangle(400 - this.levelInfo.paddleWidth() / 2, 565, this.levelInfo.paddleWidth(), 15),
+                Color.ORANGE, this.keyboard, this.levelInfo.paddleSpeed());
+    }
+
     /**
      * The method choose the exact color by the index of the row.
      * @param index - the row number of the blocks
@@ -230,17 +451,189 @@ public class GameLevel implements Animation {
     }
 
     /**
-     * The method charges on the logic of the game.
-     * @param d - DrawSurface
+     * The method charges on the logic of the game. The game is simulated in
+     * fixed steps, as many as fit in the time passed since the last frame.
+     * The balls and the paddle are drawn between their places before and
+     * after the last step, by the part of a step which is left over, so a
+     * frame rate above the steps per second still moves them every frame.
+     * When the level is drawn by a render thread, nothing is drawn here and
+     * a snapshot of the level is published instead.
+     * @param d - DrawSurface, or null when a render thread draws the level
      * @param dt - amount of seconds passed since the last frame
      */
     public void doOneFrame(DrawSurface d, double dt) {
-        this.sprites.drawAllOn(d);
+        int steps = this.timestep.advance(dt);
+        for (int i = 0; i < steps && this.running; i++) {
+            if (i == steps - 1) {
+                this.savePlaces();
+            }
+            this.doOneStep(this.timestep.getStep());
+        }
+        if (d == null && this.snapshots == null) {
+            return;
+        }
+        boolean blended = this.blend(this.timestep.getAccumulator() / this.timestep.getStep());
+        if (d != null) {
+            long start = System.nanoTime();
+            this.sprites.drawAllOn(d);
+            this.frameStats.recordDraw(System.nanoTime() - start);
+        }
+        if (this.snapshots != null) {
+            this.publishSnapshot();
+        }
+        if (blended) {
+            this.unblend();
+        }
+    }
+
+    /**
+     * The method keeps the places of the balls and the paddle before a step,
+     * for drawing the frames until the next step.
+     */
+    private void savePlaces() {
+        int count = this.ballCount();
+        if (this.lastBallX.length < count) {
+            int size = Math.max(count, this.lastBallX.length * 2);
+            this.lastBallX = new double[size];
+            this.lastBallY = new double[size];
+            this.nextBallX = new double[size];
+            this.nextBallY = new double[size];
+        }
+        for (int i = 0; i < count; i++) {
+            Ball ball = this.getBall(i);
+            this.lastBallX[i] = ball.getCenter().getX();
+            this.lastBallY[i] = ball.getCenter().getY();
+        }
+        this.lastBallCount = count;
+        Paddle p = this.getPaddle();
+        this.lastPaddleX = p != null ? p.getCollisionRectangle().getX() : Double.NaN;
+    }
+
+    /**
+     * The method forgets the places before the last step, so the next frames
+     * are drawn as they are until a step is done.
+     */
+    private void forgetPlaces() {
+        this.lastBallCount = -1;
+        this.lastPaddleX = Double.NaN;
+    }
+
+    /**
+     * The method moves the balls and the paddle the given part of the way
+     * from their places before the last step to their places now. Their
+     * real places are kept, to be put back by unblend before the next step.
+     * Nothing is moved when balls were added or removed since the places
+     * were saved.
+     * @param alpha - the part of a step passed since the last step
+     * @return true if the balls and the paddle should be put back
+     */
+    private boolean blend(double alpha) {
+        int count = this.ballCount();
+        if (count != this.lastBallCount) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            Ball ball = this.getBall(i);
+            double x = ball.getCenter().getX(), y = ball.getCenter().getY();
+            this.nextBallX[i] = x;
+            this.nextBallY[i] = y;
+            this.placeBall(i, this.lastBallX[i] + (x - this.lastBallX[i]) * alpha,
+                    this.lastBallY[i] + (y - this.lastBallY[i]) * alpha);
+        }
+        this.nextPaddleX = Double.NaN;
+        Paddle p = this.getPaddle();
+        if (p != null && !Double.isNaN(this.lastPaddleX)) {
+            this.nextPaddleX = p.getCollisionRectangle().getX();
+            p.moveTo(this.lastPaddleX + (this.nextPaddleX - this.lastPaddleX) * alpha);
+        }
+        return true;
+    }
+
+    /**
+     * The method puts the balls and the paddle back at the places which
+     * blend moved them from.
+     */
+    private void unblend() {
+        for (int i = 0; i < this.lastBallCount; i++) {
+            this.placeBall(i, this.nextBallX[i], this.nextBallY[i]);
+        }
+        if (!Double.isNaN(this.nextPaddleX)) {
+            this.paddle.moveTo(this.nextPaddleX);
+        }
+    }
+
+    /**
+     * The method puts a ball of the game at the given center.
+     * @param index - the index of the ball
+     * @param x - the x coordinate of the center
+     * @param y - the y coordinate of the center
+     */
+    private void placeBall(int index, double x, double y) {
+        if (this.ballSystem != null) {
+            this.ballSystem.moveBall(index, x, y);
+        } else {
+            Point center = this.balls.get(index).getCenter();
+            center.setX(x);
+            center.setY(y);
+        }
+    }
+
+    /**
+     * The method publishes the current state of the level to the render
+     * thread.
+     */
+    private void publishSnapshot() {
+        this.snapshotCount++;
+        List<Ball> ballList = this.ballSystem != null ? this.ballSystem.getBalls() : this.balls;
+        this.snapshots.back().capture(this.snapshotCount, ballList, this.paddle, this.snapshotBlocks,
+                this.environment, this.score.getValue(), this.lives.getValue());
+        this.snapshots.publish();
+    }
+
+    /**
+     * The method starts a render thread which draws the level from now on.
+     */
+    private void startRenderThread() {
+        this.snapshots = new SnapshotBuffer();
+        this.snapshotBlocks = this.staticLayer.getBlocks();
+        this.renderThread = new RenderThread(this.runner.getGui(), this.runner.getFramesPerSecond(),
+                this.snapshots, this.staticLayer.getBackground(), this.snapshotBlocks, this.levelInfo.levelName());
+        this.publishSnapshot();
+        this.renderThread.start();
+    }
+
+    /**
+     * The method stops the render thread, the runner draws the level again.
+     */
+    private void stopRenderThread() {
+        this.renderThread.stop();
+        this.renderThread = null;
+        this.snapshots = null;
+        this.snapshotBlocks = null;
+    }
+
+    /**
+     * The method moves the game one step forward without drawing anything.
+     * @param dt - amount of seconds passed since the last step
+     */
+    public void doOneStep(double dt) {
+        if (this.input != null) {
+            this.input.tick();
+        }
         this.sprites.notifyAllTimePassed(dt);
-        if (this.keyboard.isPressed("p") || this.keyboard.isPressed("P")) {
+        if (this.runner != null && (this.keyboard.isPressed("p") || this.keyboard.isPressed("P"))) {
+            // The pause screen is drawn by the runner, so the render thread waits
+            if (this.renderThread != null) {
+                this.renderThread.stop();
+            }
             this.runner.run(new KeyPressStoppableAnimation(this.keyboard, "space",
                     new PauseScreen(this.keyboard)));
             this.runner.run(new CountdownAnimation(2, 3, this.sprites));
+            this.timestep.reset();
+            this.forgetPlaces();
+            if (this.renderThread != null) {
+                this.renderThread.start();
+            }
         }
         if (this.remainingBlocks.getValue() == 0) {
             this.score.increase(100);
@@ -253,13 +646,200 @@ public class GameLevel implements Animation {
     }
 
     /**
-     * The method runs the game and start the animation loop.
+     * The method puts new balls and paddle in the game and starts a turn.
+     */
+    public void startTurn() {
+        this.buildsBallsAndPuddle();
+        this.running = true;
+    }
+
+    /**
+     * The method ends the current turn.
+     */
+    public void endTurn() {
+        this.removePaddle();
+    }
+
+    /**
+     * The method runs the game and start the animation loop. When the level
+     * ends, the timing of its frames is added to the file given by the
+     * arkanoid.frameStats property, if it is set.
      */
     public void playOneTurn() {
         this.buildsBallsAndPuddle();
         this.runner.run(new CountdownAnimation(2, 3, this.sprites));
         this.running = true;
-        this.runner.run(this);
-        this.removePaddle();
+        this.timestep.reset();
+        this.forgetPlaces();
+        if (this.renderPipeline) {
+            this.startRenderThread();
+            this.runner.simulate(this, this.frameStats);
+            this.stopRenderThread();
+        } else {
+            this.runner.run(this, this.frameStats);
+        }
+        this.endTurn();
+        String statsFile = System.getProperty(FRAME_STATS_PROPERTY);
+        if (statsFile != null && (this.remainingBlocks.getValue() == 0 || this.lives.getValue() == 0)) {
+            this.frameStats.appendTo(statsFile, this.levelInfo.levelName());
+        }
+    }
+
+    /**
+     * The method returns the number of doubles which the state of the level
+     * takes now. It changes with the number of balls. The level must be
+     * initialized.
+     * @return the size of the state
+     */
+    public int getStateSize() {
+        return BLOCK_STATES + 1 + this.allBlocks.size() + 1 + this.ballCount() * BALL_SIZE;
+    }
+
+    /**
+     * The method saves everything which changes while the level is played
+     * into a flat array: the counters, the paddle, the hit points of the
+     * blocks which are still in the game and the places and velocities of
+     * the balls. A removed block or paddle is saved as NaN. The array is
+     * reused when it is big enough, so states can be saved every step
+     * without garbage.
+     * @param state - the array to save into, or null for a new one
+     * @return the array which holds the state
+     */
+    public double[] saveState(double[] state) {
+        int size = this.getStateSize();
+        if (state == null || state.length < size) {
+            state = new double[size];
+        }
+        state[SCORE] = this.score.getValue();
+        state[LIVES] = this.lives.getValue();
+        state[BLOCKS] = this.remainingBlocks.getValue();
+        state[BALLS] = this.remainingBalls.getValue();
+        state[RUNNING] = this.running ? 1 : 0;
+        state[ACCUMULATOR] = this.timestep.getAccumulator();
+        state[PADDLE_X] = Double.NaN;
+        if (this.paddle != null && this.environment.contains(this.paddle)) {
+            state[PADDLE_X] = this.paddle.getCollisionRectangle().getX();
+        }
+        int i = BLOCK_STATES;
+        state[i++] = this.allBlocks.size();
+        for (int b = 0; b < this.allBlocks.size(); b++) {
+            Block block = this.allBlocks.get(b);
+            state[i++] = this.environment.contains(block) ? block.getHitPoints() : Double.NaN;
+        }
+        int ballCount = this.ballCount();
+        state[i++] = ballCount;
+        for (int b = 0; b < ballCount; b++) {
+            Ball ball = this.getBall(b);
+            state[i++] = ball.getCenter().getX();
+            state[i++] = ball.getCenter().getY();
+            state[i++] = ball.getVelocity().getDx();
+            state[i++] = ball.getVelocity().getDy();
+        }
+        return state;
+    }
+
+    /**
+     * The method brings the level back to a state which was saved by
+     * saveState of this level, or of another game of the same level. The
+     * blocks, the balls and the paddle are put back in the order they had,
+     * so the level goes on exactly as it did after the state was saved.
+     * @param state - the saved state
+     */
+    public void restoreState(double[] state) {
+        int i = BLOCK_STATES;
+        int blockCount = this.allBlocks.size();
+        if ((int) state[i++] != blockCount) {
+            throw new IllegalArgumentException("The state was not saved by this level");
+        }
+        // The balls and the paddle are added again after the blocks
+        if (this.paddle != null && this.environment.contains(this.paddle)) {
+            this.removePaddle();
+        }
+        List<Ball> oldBalls = new ArrayList<Ball>(this.balls);
+        for (Ball ball : oldBalls) {
+            ball.removeFromGame(this);
+        }
+        if (this.ballSystem != null) {
+            this.ballSystem.clear();
+        }
+        int firstBack = -1;
+        for (int b = 0; b < blockCount; b++) {
+            Block block = this.allBlocks.get(b);
+            double hitPoints = state[i + b];
+            if (Double.isNaN(hitPoints)) {
+                if (this.environment.contains(block)) {
+                    block.removeFromGame(this);
+                }
+            } else {
+                block.setHitPoints((int) hitPoints);
+                if (firstBack < 0 && !this.environment.contains(block)) {
+                    firstBack = b;
+                }
+            }
+        }
+        // A block which comes back is added again with the blocks after it,
+        // so the blocks are checked and drawn in their first order
+        if (firstBack >= 0) {
+            for (int b = firstBack; b < blockCount; b++) {
+                Block block = this.allBlocks.get(b);
+                if (this.environment.contains(block)) {
+                    block.removeFromGame(this);
+                }
+            }
+            for (int b = firstBack; b < blockCount; b++) {
+                Block block = this.allBlocks.get(b);
+                if (!Double.isNaN(state[i + b])) {
+                    // The block remover stops listening to the blocks it removes
+                    block.removeHitListener(this.blockRemover);
+                    block.addHitListener(this.blockRemover);
+                    block.addToGame(this);
+                }
+            }
+        }
+        i += blockCount;
+        int ballCount = (int) state[i++];
+        for (int b = 0; b < ballCount && this.ballSystem != null; b++) {
+            this.ballSystem.add(state[i++], state[i++], state[i++], state[i++], 5, Color.LIGHT_GRAY);
+        }
+        for (int b = 0; b < ballCount && this.ballSystem == null; b++) {
+            Ball ball = b < oldBalls.size() ? oldBalls.get(b) : new Ball(new Point(0, 0), 5, Color.LIGHT_GRAY);
+            ball.getCenter().setX(state[i++]);
+            ball.getCenter().setY(state[i++]);
+            ball.setVelocity(state[i++], state[i++]);
+            ball.setGameEnviornment(this.environment);
+            ball.addToGame(this);
+        }
+        if (!Double.isNaN(state[PADDLE_X])) {
+            if (this.paddle == null) {
+                this.paddle = this.newPaddle();
+            }
+            this.paddle.moveTo(state[PADDLE_X]);
+            this.paddle.addToGame(this);
+        }
+        setCounter(this.score, state[SCORE]);
+        setCounter(this.lives, state[LIVES]);
+        setCounter(this.remainingBlocks, state[BLOCKS]);
+        setCounter(this.remainingBalls, state[BALLS]);
+        this.running = state[RUNNING] != 0;
+        this.timestep.setAccumulator(state[ACCUMULATOR]);
+        this.forgetPlaces();
+        this.staticLayer.invalidateAll();
+    }
+
+    /**
+     * The method sets the value of a counter.
+     * @param counter - the counter
+     * @param value - the new value
+     */
+    private static void setCounter(Counter counter, double value) {
+        counter.increase((int) value - counter.getValue());
+    }
+
+    /**
+     * The method returns the timing of the frames of the level.
+     * @return frameStats
+     */
+    public FrameStats getFrameStats() {
+        return this.frameStats;
     }
 }
\ No newline at end of file
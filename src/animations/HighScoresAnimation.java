@@ -10,8 +10,13 @@ import io.HighScoresTable;
  * The class of HighScoresAnimation.
  * @author Barak Talmor
  */
-public class HighScoresAnimation implements Animation {
+public class HighScoresAnimation implements StaticAnimation {
     private HighScoresTable scores;
+    private ScreenCache screen;
+    // The entries which are drawn, to find out when the table changes
+    private String[] names;
+    private int[] values;
+    private int version;
 
     /**
      * The constructor of HighScoresAnimation.
@@ -19,10 +24,64 @@ public class HighScoresAnimation implements Animation {
      */
     public HighScoresAnimation(HighScoresTable scores) {
         this.scores = scores;
+        this.screen = new ScreenCache();
+        this.names = new String[0];
+        this.values = new int[0];
+        this.version = 0;
     }
 
     @Override
     public void doOneFrame(DrawSurface d, double dt) {
+        List<ScoreInfo> hs = this.scores.getHighScores();
+        if (this.differs(hs)) {
+            this.keep(hs);
+            this.version++;
+        }
+        DrawSurface cached = this.screen.update(this.version, d);
+        if (cached != null) {
+            this.drawTable(cached, hs);
+        }
+        this.screen.drawOn(d);
+    }
+
+    @Override
+    public boolean isIdle() {
+        return this.screen.isCurrent(this.version) && !this.differs(this.scores.getHighScores());
+    }
+
+    /**
+     * The method checks if the entries of the table are not the ones which
+     * were drawn.
+     * @param hs - the entries of the table
+     * @return true if the table changed, otherwise false
+     */
+    private boolean differs(List<ScoreInfo> hs) {
+        boolean changed = hs.size() != this.names.length;
+        for (int i = 0; !changed && i < hs.size(); i++) {
+            changed = hs.get(i).getScore() != this.values[i] || !hs.get(i).getName().equals(this.names[i]);
+        }
+        return changed;
+    }
+
+    /**
+     * The method keeps the entries of the table which are drawn.
+     * @param hs - the entries of the table
+     */
+    private void keep(List<ScoreInfo> hs) {
+        this.names = new String[hs.size()];
+        this.values = new int[hs.size()];
+        for (int i = 0; i < hs.size(); i++) {
+            this.names[i] = hs.get(i).getName();
+            this.values[i] = hs.get(i).getScore();
+        }
+    }
+
+    /**
+     * The method draws the title and the entries of the table.
+     * @param d - the surface to draw on
+     * @param hs - the entries of the table
+     */
+    private void drawTable(DrawSurface d, List<ScoreInfo> hs) {
         d.setColor(Color.LIGHT_GRAY);
         d.fillRectangle(0, 0, 800, 600);
         // Title "Hight Scores"
@@ -46,7 +105,6 @@ public class HighScoresAnimation implements Animation {
         d.drawLine(120, 162, 600, 162);
         d.setColor(Color.BLACK);
         d.drawLine(120, 163, 600, 163);
-        List<ScoreInfo> hs = this.scores.getHighScores();
         for (int i = 0; i < hs.size(); i++) {
             d.setColor(Color.BLACK);
             d.drawText(120, 190 + i * 40, hs.get(i).getName(), 30);
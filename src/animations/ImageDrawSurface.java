@@ -0,0 +1,120 @@
+package animations;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Polygon;
+import java.awt.image.BufferedImage;
+
+import biuoop.DrawSurface;
+
+/**
+ * A draw surface which draws straight into an image, so sprites can be drawn
+ * once into an offscreen image which is then shown many times.
+ * @author Barak Talmor
+ */
+public class ImageDrawSurface implements DrawSurface {
+    private BufferedImage image;
+    private Graphics2D g;
+
+    /**
+     * The constructor of the surface.
+     * @param image - the image to draw on
+     */
+    public ImageDrawSurface(BufferedImage image) {
+        this.image = image;
+        this.g = image.createGraphics();
+    }
+
+    /**
+     * The method limits the drawing to the given area of the image.
+     * @param x - the x coordinate of the area
+     * @param y - the y coordinate of the area
+     * @param width - the width of the area
+     * @param height - the height of the area
+     */
+    public void setClip(int x, int y, int width, int height) {
+        this.g.setClip(x, y, width, height);
+    }
+
+    /**
+     * The method releases the graphics of the surface, it can not be used
+     * afterwards.
+     */
+    public void dispose() {
+        this.g.dispose();
+    }
+
+    @Override
+    public int getWidth() {
+        return this.image.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+        return this.image.getHeight();
+    }
+
+    @Override
+    public void setColor(Color color) {
+        this.g.setColor(color);
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        this.g.drawLine(x1, y1, x2, y2);
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height) {
+        this.g.drawOval(x, y, width, height);
+    }
+
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+        this.g.fillOval(x, y, width, height);
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int width, int height) {
+        this.g.drawRect(x, y, width, height);
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int width, int height) {
+        this.g.fillRect(x, y, width, height);
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image img) {
+        this.g.drawImage(img, x, y, null);
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        this.g.drawOval(x - r, y - r, r * 2, r * 2);
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        this.g.fillOval(x - r, y - r, r * 2, r * 2);
+    }
+
+    @Override
+    public void drawText(int x, int y, String text, int fontSize) {
+        Font font = this.g.getFont();
+        this.g.setFont(new Font(font.getFontName(), font.getStyle(), fontSize));
+        this.g.drawString(text, x, y);
+    }
+
+    @Override
+    public void drawPolygon(Polygon p) {
+        this.g.drawPolygon(p);
+    }
+
+    @Override
+    public void fillPolygon(Polygon p) {
+        this.g.fillPolygon(p);
+    }
+}
@@ -7,7 +7,7 @@ import biuoop.KeyboardSensor;
  * The class of the keyPressStoppableAnimation.
  * @author barak
  */
-public class KeyPressStoppableAnimation implements Animation {
+public class KeyPressStoppableAnimation implements StaticAnimation {
     private KeyboardSensor keyboard;
     private String endKey;
     private Animation animation;
@@ -39,6 +39,11 @@ public class KeyPressStoppableAnimation implements Animation {
         }
     }
 
+    @Override
+    public boolean isIdle() {
+        return this.animation instanceof StaticAnimation && ((StaticAnimation) this.animation).isIdle();
+    }
+
     @Override
     public boolean shouldStop() {
         return this.stop;
@@ -0,0 +1,111 @@
+package animations;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of durations in nanoseconds. Like HdrHistogram, it keeps a
+ * fixed table of buckets whose width grows with the value, so every value
+ * is counted within 1/128 of its value (under 1%) and recording never
+ * allocates.
+ * @author Barak Talmor
+ */
+public class LatencyHistogram {
+    // Values under 2^SUB_BITS have a bucket of their own
+    private static final int SUB_BITS = 8;
+    private static final int HALF = 1 << (SUB_BITS - 1);
+    private long[] counts;
+    private long total;
+    private long max;
+
+    /**
+     * The constructor of an empty histogram.
+     */
+    public LatencyHistogram() {
+        this.counts = new long[indexOf(Long.MAX_VALUE) + 1];
+        this.total = 0;
+        this.max = 0;
+    }
+
+    /**
+     * The method returns the bucket of the value. The top SUB_BITS bits of
+     * the value pick the bucket within its power of two.
+     * @param value - a non negative value
+     * @return index of the bucket
+     */
+    private static int indexOf(long value) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - (SUB_BITS - 1));
+        int mantissa = (int) (value >>> shift);
+        return shift == 0 ? mantissa : HALF * shift + mantissa;
+    }
+
+    /**
+     * The method returns the highest value which falls in the bucket.
+     * @param index - index of the bucket
+     * @return value
+     */
+    private static long highestOf(int index) {
+        if (index < 2 * HALF) {
+            return index;
+        }
+        int shift = index / HALF - 1;
+        long mantissa = index % HALF + HALF;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    /**
+     * The method counts one duration.
+     * @param nanos - the duration, negative values count as zero
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        this.counts[indexOf(value)]++;
+        this.total++;
+        this.max = Math.max(this.max, value);
+    }
+
+    /**
+     * The method returns the number of recorded durations.
+     * @return total
+     */
+    public long getCount() {
+        return this.total;
+    }
+
+    /**
+     * The method returns the longest recorded duration.
+     * @return max
+     */
+    public long getMax() {
+        return this.max;
+    }
+
+    /**
+     * The method returns the duration which the given percent of the
+     * recorded durations do not pass.
+     * @param percent - between 0 and 100
+     * @return duration in nanoseconds, or 0 if nothing was recorded
+     */
+    public long percentile(double percent) {
+        if (this.total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percent / 100 * this.total));
+        long seen = 0;
+        for (int i = 0; i < this.counts.length; i++) {
+            seen += this.counts[i];
+            if (seen >= rank) {
+                return Math.min(highestOf(i), this.max);
+            }
+        }
+        return this.max;
+    }
+
+    /**
+     * The method forgets all the recorded durations.
+     */
+    public void reset() {
+        Arrays.fill(this.counts, 0);
+        this.total = 0;
+        this.max = 0;
+    }
+}
@@ -14,7 +14,7 @@ import biuoop.KeyboardSensor;
  * @author Barak Talmor
  * @param <T> - the type of task that will receive
  */
-public class MenuAnimation<T> implements Menu<T> {
+public class MenuAnimation<T> implements Menu<T>, StaticAnimation {
     private String menuTitle;
     private AnimationRunner ar;
     private KeyboardSensor keyboard;
@@ -23,6 +23,9 @@ public class MenuAnimation<T> implements Menu<T> {
     private T currentReturnVal;
     private Map<String, Menu<T>> subMenus;
     private boolean alreadyPressed;
+    private ScreenCache screen;
+    // Changes whenever a selection is added, so the screen is drawn again
+    private int version;
 
     /**
      * The constructor of the MenuAnimation.
@@ -39,10 +42,38 @@ public class MenuAnimation<T> implements Menu<T> {
         this.currentReturnVal = null;
         this.subMenus = new TreeMap<String, Menu<T>>();
         this.alreadyPressed = true;
+        this.screen = new ScreenCache();
+        this.version = 0;
     }
 
     @Override
     public void doOneFrame(DrawSurface d, double dt) {
+        DrawSurface cached = this.screen.update(this.version, d);
+        if (cached != null) {
+            this.drawMenu(cached);
+        }
+        this.screen.drawOn(d);
+        boolean enter = false;
+        for (SelectionInfo<T> s : this.sIL) {
+            if (this.keyboard.isPressed(s.getKey())) {
+                enter = true;
+                if (!this.alreadyPressed) {
+                    this.currentReturnVal = s.getReturnVal();
+                    this.stop = true;
+                    break;
+                }
+            }            
+        }
+        if (!enter) {
+            this.alreadyPressed = false;
+        }
+    }
+
+    /**
+     * The method draws the title and the selections of the menu.
+     * @param d - the surface to draw on
+     */
+    private void drawMenu(DrawSurface d) {
         d.setColor(Color.gray);
         d.fillRectangle(0, 0, 800, 600);
         d.setColor(Color.BLACK);
@@ -59,20 +90,11 @@ public class MenuAnimation<T> implements Menu<T> {
             d.drawText(123, 130 + i * 40, "(" + s.getKey() + ") " + s.getMessage(), 30);
             i++;
         }
-        boolean enter = false;
-        for (SelectionInfo<T> s : this.sIL) {
-            if (this.keyboard.isPressed(s.getKey())) {
-                enter = true;
-                if (!this.alreadyPressed) {
-                    this.currentReturnVal = s.getReturnVal();
-                    this.stop = true;
-                    break;
-                }
-            }            
-        }
-        if (!enter) {
-            this.alreadyPressed = false;
-        }
+    }
+
+    @Override
+    public boolean isIdle() {
+        return this.screen.isCurrent(this.version);
     }
 
     @Override
@@ -83,12 +105,14 @@ public class MenuAnimation<T> implements Menu<T> {
     @Override
     public void addSelection(String key, String message, T returnVal) {
         this.sIL.add(new SelectionInfo<T>(key, message, returnVal));
+        this.version++;
     }
 
     @Override
     public void addSubMenu(String key, String message, Menu<T> subMenu) {
         this.subMenus.put(key, subMenu);
         this.sIL.add(new SelectionInfo<T>(key, message, subMenu));
+        this.version++;
     }
 
     @Override
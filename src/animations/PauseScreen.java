@@ -8,7 +8,8 @@ import biuoop.KeyboardSensor;
  * The class charges the pause screen.
  * @author Barak Talmor
  */
-public class PauseScreen implements Animation {
+public class PauseScreen implements StaticAnimation {
+    private ScreenCache screen;
 //    private KeyboardSensor keyboard;
 //    private boolean stop;
 
@@ -19,10 +20,24 @@ public class PauseScreen implements Animation {
     public PauseScreen(KeyboardSensor k) {
 //        this.keyboard = k;
 ////        this.stop = false;
+        this.screen = new ScreenCache();
     }
 
     @Override
     public void doOneFrame(DrawSurface d, double dt) {
+        // The screen never changes, it is drawn once
+        DrawSurface cached = this.screen.update(0, d);
+        if (cached != null) {
+            this.drawPause(cached);
+        }
+        this.screen.drawOn(d);
+    }
+
+    /**
+     * The method draws the paused announce.
+     * @param d - the surface to draw on
+     */
+    private void drawPause(DrawSurface d) {
         // Paused announce
         d.setColor(Color.WHITE);
         d.fillRectangle(0, 0, 800, 600);
@@ -40,6 +55,11 @@ public class PauseScreen implements Animation {
         d.drawText(117, d.getHeight() * 2 / 3, "PRESS SPACE TO CONTINUE", 40);
     }
 
+    @Override
+    public boolean isIdle() {
+        return this.screen.isCurrent(0);
+    }
+
     @Override
     public boolean shouldStop() {
         return false;
@@ -0,0 +1,203 @@
+package animations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import biuoop.DrawSurface;
+import biuoop.GUI;
+import biuoop.KeyboardSensor;
+import biuoop.Sleeper;
+import collisions.Ball;
+import collisions.Block;
+import collisions.Paddle;
+import geometryprimitives.Rectangle;
+import listeners.Counter;
+import sprites.LivesIndicator;
+import sprites.NameIndicator;
+import sprites.ScoreIndicator;
+import sprites.Sprite;
+
+/**
+ * The thread which draws a level while the game thread moves it. It draws
+ * the latest snapshot of the level, on objects of its own: copies of the
+ * blocks in a static layer, and balls, a paddle and counters which are only
+ * moved to where the snapshot says. It never touches the objects of the game.
+ * @author Barak Talmor
+ */
+public class RenderThread implements Runnable {
+    private GUI gui;
+    private SnapshotBuffer buffer;
+    private long nanosPerFrame;
+    private Sleeper sleeper;
+    // The waits count the late frames in it, the game does not report them
+    private FrameStats stats;
+    private StaticLayer layer;
+    // The copy of every block of the level, also after it was removed, so
+    // a block which comes back (after a saved state is loaded) is rebuilt
+    private List<Block> blocks;
+    private int[] hitPoints;
+    private Counter score;
+    private Counter lives;
+    private List<Sprite> indicators;
+    private List<Ball> balls;
+    private Paddle paddle;
+    private Rectangle paddleRect;
+    private long drawn;
+    private volatile boolean running;
+    private Thread thread;
+
+    /**
+     * The constructor of the render thread, it must be built by the game
+     * thread.
+     * @param gui - the gui to draw on
+     * @param framesPerSecond - the most frames to draw in a second
+     * @param buffer - the snapshots of the level
+     * @param background - the background of the level
+     * @param levelBlocks - the blocks of the level, in the order of the
+     *        snapshots
+     * @param levelName - the name of the level
+     */
+    public RenderThread(GUI gui, int framesPerSecond, SnapshotBuffer buffer, Sprite background,
+            List<Block> levelBlocks, String levelName) {
+        this.gui = gui;
+        this.buffer = buffer;
+        this.nanosPerFrame = 1000000000L / framesPerSecond;
+        this.sleeper = new Sleeper();
+        this.stats = new FrameStats();
+        this.layer = new StaticLayer();
+        this.layer.setBackground(background);
+        this.blocks = new ArrayList<Block>();
+        this.hitPoints = new int[levelBlocks.size()];
+        for (int i = 0; i < levelBlocks.size(); i++) {
+            Block source = levelBlocks.get(i);
+            this.hitPoints[i] = source.getHitPoints();
+            Block copy = new Block(source.getCollisionRectangle(), source.getFill(), source.getFrameColor(),
+                    this.hitPoints[i]);
+            this.blocks.add(copy);
+            this.layer.addBlock(copy);
+        }
+        this.score = new Counter(0);
+        this.lives = new Counter(0);
+        this.indicators = new ArrayList<Sprite>();
+        this.indicators.add(new ScoreIndicator(this.score));
+        this.indicators.add(new LivesIndicator(this.lives));
+        this.indicators.add(new NameIndicator(levelName));
+        this.balls = new ArrayList<Ball>();
+        this.drawn = 0;
+        this.running = false;
+    }
+
+    /**
+     * The method starts drawing on a new thread.
+     */
+    public void start() {
+        this.running = true;
+        this.thread = new Thread(this, "render");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * The method stops drawing and waits for the thread to end, so the gui
+     * may be used by the caller afterwards.
+     */
+    public void stop() {
+        this.running = false;
+        try {
+            this.thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        // Paced on the deadlines of the animation runner, a frame without a
+        // new snapshot is not drawn and only sleeps
+        long deadline = System.nanoTime();
+        while (this.running) {
+            WorldSnapshot snapshot = this.buffer.latest();
+            boolean draw = snapshot.getSequence() != 0 && snapshot.getSequence() != this.drawn;
+            if (draw) {
+                this.apply(snapshot);
+                DrawSurface d = this.gui.getDrawSurface();
+                this.drawOn(d, snapshot);
+                this.gui.show(d);
+                this.drawn = snapshot.getSequence();
+            }
+            deadline = AnimationRunner.waitFrame(this.sleeper, deadline + this.nanosPerFrame, this.nanosPerFrame,
+                    draw, this.stats);
+        }
+    }
+
+    /**
+     * The method brings the objects of the thread to the state of the
+     * snapshot.
+     * @param snapshot - the snapshot
+     */
+    private void apply(WorldSnapshot snapshot) {
+        for (int i = 0; i < this.hitPoints.length; i++) {
+            int hp = snapshot.getHitPoints(i);
+            if (hp == this.hitPoints[i]) {
+                continue;
+            }
+            Block old = this.blocks.get(i);
+            if (this.hitPoints[i] == WorldSnapshot.REMOVED) {
+                // Back in the layer first, where it gets its old place
+                this.layer.addBlock(old);
+            }
+            this.hitPoints[i] = hp;
+            if (hp == WorldSnapshot.REMOVED) {
+                this.layer.removeBlock(old);
+                continue;
+            }
+            // A block which was hit is replaced by a copy with its new hit points
+            Block copy = new Block(old.getCollisionRectangle(), old.getFill(), old.getFrameColor(), hp);
+            this.layer.replaceBlock(old, copy);
+            this.blocks.set(i, copy);
+        }
+        for (int i = 0; i < snapshot.getBalls(); i++) {
+            if (i == this.balls.size() || this.balls.get(i).getSize() != snapshot.getBallRadius(i)
+                    || this.balls.get(i).getColor() != snapshot.getBallColor(i)) {
+                Ball ball = new Ball(0, 0, snapshot.getBallRadius(i), snapshot.getBallColor(i));
+                if (i == this.balls.size()) {
+                    this.balls.add(ball);
+                } else {
+                    this.balls.set(i, ball);
+                }
+            }
+            this.balls.get(i).getCenter().setX(snapshot.getBallX(i));
+            this.balls.get(i).getCenter().setY(snapshot.getBallY(i));
+        }
+        if (snapshot.hasPaddle()) {
+            if (this.paddle == null || this.paddleRect.getWidth() != snapshot.getPaddleWidth()
+                    || this.paddleRect.getHeight() != snapshot.getPaddleHeight()
+                    || this.paddle.getColor() != snapshot.getPaddleColor()) {
+                this.paddleRect = new Rectangle(snapshot.getPaddleX(), snapshot.getPaddleY(),
+                        snapshot.getPaddleWidth(), snapshot.getPaddleHeight());
+                this.paddle = new Paddle(this.paddleRect, snapshot.getPaddleColor(), (KeyboardSensor) null, 0);
+            }
+            this.paddleRect.moveTo(snapshot.getPaddleX(), snapshot.getPaddleY());
+        }
+        this.score.increase(snapshot.getScore() - this.score.getValue());
+        this.lives.increase(snapshot.getLives() - this.lives.getValue());
+    }
+
+    /**
+     * The method draws the level in the order the game draws it.
+     * @param d - the surface
+     * @param snapshot - the snapshot
+     */
+    private void drawOn(DrawSurface d, WorldSnapshot snapshot) {
+        this.layer.drawOn(d);
+        for (Sprite indicator : this.indicators) {
+            indicator.drawOn(d);
+        }
+        for (int i = 0; i < snapshot.getBalls(); i++) {
+            this.balls.get(i).drawOn(d);
+        }
+        if (snapshot.hasPaddle()) {
+            this.paddle.drawOn(d);
+        }
+    }
+}
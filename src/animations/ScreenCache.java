@@ -0,0 +1,63 @@
+package animations;
+
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+import biuoop.DrawSurface;
+import io.ImageCache;
+
+/**
+ * Keeps a drawn screen in an image, for screens which stay the same from
+ * frame to frame. The screen is drawn again only when its key changes, in
+ * between every frame just shows the image.
+ * @author Barak Talmor
+ */
+public class ScreenCache {
+    private BufferedImage image;
+    private ImageDrawSurface surface;
+    private long key;
+
+    /**
+     * The method returns a surface to draw the screen on when it must be
+     * drawn again: the first time, when the key changed or when the size of
+     * the target changed.
+     * @param newKey - a value which changes whenever the screen does
+     * @param target - the surface the screen is shown on
+     * @return a surface to draw the screen on, or null if the kept image is
+     *         still right
+     */
+    public DrawSurface update(long newKey, DrawSurface target) {
+        int width = target.getWidth(), height = target.getHeight();
+        if (this.image != null && this.key == newKey && this.image.getWidth() == width
+                && this.image.getHeight() == height) {
+            return null;
+        }
+        if (this.image == null || this.image.getWidth() != width || this.image.getHeight() != height) {
+            this.image = ImageCache.compatibleImage(width, height, Transparency.OPAQUE);
+        }
+        this.key = newKey;
+        this.surface = new ImageDrawSurface(this.image);
+        return this.surface;
+    }
+
+    /**
+     * The method checks if the kept image was drawn for the key.
+     * @param newKey - a value which changes whenever the screen does
+     * @return true if the image is still right, otherwise false
+     */
+    public boolean isCurrent(long newKey) {
+        return this.image != null && this.key == newKey;
+    }
+
+    /**
+     * The method shows the kept screen on the surface.
+     * @param d - the surface
+     */
+    public void drawOn(DrawSurface d) {
+        if (this.surface != null) {
+            this.surface.dispose();
+            this.surface = null;
+        }
+        d.drawImage(0, 0, this.image);
+    }
+}
@@ -0,0 +1,61 @@
+package animations;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A triple buffer of world snapshots between the game thread and the render
+ * thread. The game thread always has a snapshot of its own to fill, the
+ * render thread always has one of its own to draw, and the third one is the
+ * latest which was published. Neither thread ever waits for the other, and
+ * the render thread skips the snapshots it had no time to draw.
+ * @author Barak Talmor
+ */
+public class SnapshotBuffer {
+    // The index of the shared snapshot, with FRESH set while it was not taken
+    private static final int FRESH = 4;
+    private static final int INDEX = 3;
+    private WorldSnapshot[] snapshots;
+    private int back;
+    private int front;
+    private AtomicInteger middle;
+
+    /**
+     * The constructor of the buffer.
+     */
+    public SnapshotBuffer() {
+        this.snapshots = new WorldSnapshot[] {new WorldSnapshot(), new WorldSnapshot(), new WorldSnapshot()};
+        this.back = 0;
+        this.middle = new AtomicInteger(1);
+        this.front = 2;
+    }
+
+    /**
+     * The method returns the snapshot which the game thread fills, it may
+     * only be called by the game thread.
+     * @return the snapshot
+     */
+    public WorldSnapshot back() {
+        return this.snapshots[this.back];
+    }
+
+    /**
+     * The method publishes the snapshot which the game thread filled, and
+     * gives it another one to fill.
+     */
+    public void publish() {
+        this.back = this.middle.getAndSet(this.back | FRESH) & INDEX;
+    }
+
+    /**
+     * The method returns the latest published snapshot, it may only be
+     * called by the render thread and the snapshot is valid until its next
+     * call.
+     * @return the snapshot
+     */
+    public WorldSnapshot latest() {
+        if ((this.middle.get() & FRESH) != 0) {
+            this.front = this.middle.getAndSet(this.front) & INDEX;
+        }
+        return this.snapshots[this.front];
+    }
+}
@@ -0,0 +1,16 @@
+package animations;
+
+/**
+ * An animation which can tell that its next frame looks like the one which
+ * was shown last, so the runner does not draw and show it. The logic of
+ * the frame, like reading the keyboard, still runs every frame.
+ * @author Barak Talmor
+ */
+public interface StaticAnimation extends Animation {
+    /**
+     * The method checks if the next frame would look like the last one.
+     * @return true if the screen does not have to be drawn again, otherwise
+     *         false
+     */
+    boolean isIdle();
+}
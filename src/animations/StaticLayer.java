@@ -0,0 +1,200 @@
+package animations;
+
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import biuoop.DrawSurface;
+import collisions.Ball;
+import collisions.Block;
+import collisions.BlockStore;
+import geometryprimitives.Rectangle;
+import io.ImageCache;
+import listeners.HitListener;
+import sprites.Sprite;
+
+/**
+ * A sprite which holds the parts of the level that rarely change - the
+ * background, the frame and the blocks - drawn once into an offscreen image.
+ * Each frame only shows the image, and only the area of a block which was
+ * hit or removed is drawn again.
+ * The gui shows a frame some time after it was drawn, so the layer keeps two
+ * images and never draws on the one it showed last.
+ * @author Barak Talmor
+ */
+public class StaticLayer implements Sprite, HitListener {
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+    private Sprite background;
+    private BlockStore blocks;
+    private BufferedImage[] images;
+    private List<List<java.awt.Rectangle>> dirty;
+    private int shown;
+
+    /**
+     * The constructor of the layer.
+     */
+    public StaticLayer() {
+        this.blocks = new BlockStore();
+        this.images = new BufferedImage[2];
+        this.dirty = new ArrayList<List<java.awt.Rectangle>>();
+        this.dirty.add(new ArrayList<java.awt.Rectangle>());
+        this.dirty.add(new ArrayList<java.awt.Rectangle>());
+        this.shown = 0;
+    }
+
+    /**
+     * The method sets the background of the layer.
+     * @param b - the background sprite
+     */
+    public void setBackground(Sprite b) {
+        this.background = b;
+        this.invalidate(new java.awt.Rectangle(0, 0, WIDTH, HEIGHT));
+    }
+
+    /**
+     * The method adds the block to the layer, the layer listens to its hits.
+     * @param block - the block
+     */
+    public void addBlock(Block block) {
+        this.blocks.add(block);
+        block.addHitListener(this);
+        this.invalidate(block);
+    }
+
+    /**
+     * The method removes the block from the layer.
+     * @param block - the block
+     * @return true if the block was in the layer, otherwise false
+     */
+    public boolean removeBlock(Block block) {
+        if (!this.blocks.remove(block)) {
+            return false;
+        }
+        block.removeHitListener(this);
+        this.invalidate(block);
+        return true;
+    }
+
+    /**
+     * The method puts a block in place of another one, it is drawn in the
+     * same order the old block was.
+     * @param old - the block in the layer
+     * @param block - the new block
+     */
+    public void replaceBlock(Block old, Block block) {
+        if (!this.blocks.contains(old)) {
+            this.addBlock(block);
+            return;
+        }
+        old.removeHitListener(this);
+        this.blocks.replace(old, block);
+        block.addHitListener(this);
+        this.invalidate(old);
+        this.invalidate(block);
+    }
+
+    /**
+     * The method returns the blocks of the layer, in the order they are
+     * drawn.
+     * @return a new list of the blocks
+     */
+    public List<Block> getBlocks() {
+        return this.blocks.getBlocks();
+    }
+
+    /**
+     * The method returns the background of the layer.
+     * @return background
+     */
+    public Sprite getBackground() {
+        return this.background;
+    }
+
+    /**
+     * The method marks the whole layer to be drawn again, for blocks which
+     * changed without being hit.
+     */
+    public void invalidateAll() {
+        this.invalidate(new java.awt.Rectangle(0, 0, WIDTH, HEIGHT));
+    }
+
+    @Override
+    public void hitEvent(Block beingHit, Ball hitter) {
+        this.invalidate(beingHit);
+    }
+
+    /**
+     * The method marks the area of the block to be drawn again. The frame
+     * of a block is drawn one pixel past its rectangle.
+     * @param block - the block
+     */
+    private void invalidate(Block block) {
+        Rectangle r = block.getCollisionRectangle();
+        int x = (int) r.getX(), y = (int) r.getY();
+        this.invalidate(new java.awt.Rectangle(x - 1, y - 1, (int) r.getWidth() + 3, (int) r.getHeight() + 3));
+    }
+
+    /**
+     * The method marks the area to be drawn again on both images.
+     * @param area - the area
+     */
+    private void invalidate(java.awt.Rectangle area) {
+        for (List<java.awt.Rectangle> areas : this.dirty) {
+            // Nothing to add when the whole image is drawn again anyway
+            if (areas.isEmpty() || !areas.get(0).contains(area)) {
+                areas.add(area);
+            }
+        }
+    }
+
+    @Override
+    public void drawOn(DrawSurface d) {
+        if (!this.dirty.get(this.shown).isEmpty()) {
+            // The image which was not shown last is brought up to date
+            this.shown = 1 - this.shown;
+            if (this.images[this.shown] == null) {
+                this.images[this.shown] = ImageCache.compatibleImage(WIDTH, HEIGHT, Transparency.OPAQUE);
+                this.dirty.get(this.shown).clear();
+                this.dirty.get(this.shown).add(new java.awt.Rectangle(0, 0, WIDTH, HEIGHT));
+            }
+            this.redraw(this.images[this.shown], this.dirty.get(this.shown));
+        }
+        if (this.images[this.shown] != null) {
+            d.drawImage(0, 0, this.images[this.shown]);
+        }
+    }
+
+    /**
+     * The method draws the given areas of the image again, the background
+     * first and then every block which meets the area.
+     * @param image - the image
+     * @param areas - the areas to draw, emptied by the method
+     */
+    private void redraw(BufferedImage image, List<java.awt.Rectangle> areas) {
+        ImageDrawSurface surface = new ImageDrawSurface(image);
+        for (java.awt.Rectangle area : areas) {
+            surface.setClip(area.x, area.y, area.width, area.height);
+            if (this.background != null) {
+                this.background.drawOn(surface);
+            }
+            for (int id = 0; id < this.blocks.end(); id++) {
+                Block block = this.blocks.get(id);
+                if (block != null && area.intersects(this.blocks.getX(id) - 1, this.blocks.getY(id) - 1,
+                        this.blocks.getWidth(id) + 3, this.blocks.getHeight(id) + 3)) {
+                    block.drawOn(surface);
+                }
+            }
+        }
+        surface.dispose();
+        areas.clear();
+    }
+
+    @Override
+    public void timePassed(double dt) {
+        if (this.background != null) {
+            this.background.timePassed(dt);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package animations;
+
+import java.awt.Color;
+import java.util.List;
+
+import collisions.Ball;
+import collisions.Block;
+import collisions.GameEnvironment;
+import collisions.Paddle;
+import geometryprimitives.Rectangle;
+
+/**
+ * The state of a level which is needed for drawing it: where the balls and
+ * the paddle are, the hit points of the blocks, the score and the lives.
+ * The game thread fills a snapshot and publishes it, and from then on the
+ * render thread only reads it. The arrays are reused, so filling a snapshot
+ * does not allocate once they are large enough.
+ * @author Barak Talmor
+ */
+public class WorldSnapshot {
+    public static final int REMOVED = Integer.MIN_VALUE;
+    private long sequence;
+    private int balls;
+    private double[] ballX;
+    private double[] ballY;
+    private int[] ballRadius;
+    private Color[] ballColor;
+    private boolean paddle;
+    private double paddleX;
+    private double paddleY;
+    private double paddleWidth;
+    private double paddleHeight;
+    private Color paddleColor;
+    private int[] hitPoints;
+    private int score;
+    private int lives;
+
+    /**
+     * The constructor of an empty snapshot.
+     */
+    public WorldSnapshot() {
+        this.sequence = 0;
+        this.ballX = new double[0];
+        this.ballY = new double[0];
+        this.ballRadius = new int[0];
+        this.ballColor = new Color[0];
+        this.hitPoints = new int[0];
+    }
+
+    /**
+     * The method fills the snapshot from the level.
+     * @param sequenceNumber - the number of the snapshot, starting at 1
+     * @param ballList - the balls of the level
+     * @param p - the paddle, or null
+     * @param blocks - the blocks of the level, in a fixed order
+     * @param environment - holds the blocks and the paddle which were not
+     *        removed
+     * @param scoreValue - the score
+     * @param livesValue - the remaining lives
+     */
+    public void capture(long sequenceNumber, List<Ball> ballList, Paddle p, List<Block> blocks,
+            GameEnvironment environment, int scoreValue, int livesValue) {
+        this.sequence = sequenceNumber;
+        this.balls = ballList.size();
+        if (this.ballX.length < this.balls) {
+            int size = Math.max(this.balls, this.ballX.length * 2);
+            this.ballX = new double[size];
+            this.ballY = new double[size];
+            this.ballRadius = new int[size];
+            this.ballColor = new Color[size];
+        }
+        for (int i = 0; i < this.balls; i++) {
+            Ball ball = ballList.get(i);
+            this.ballX[i] = ball.getCenter().getX();
+            this.ballY[i] = ball.getCenter().getY();
+            this.ballRadius[i] = ball.getSize();
+            this.ballColor[i] = ball.getColor();
+        }
+        this.paddle = p != null && environment.contains(p);
+        if (this.paddle) {
+            Rectangle r = p.getCollisionRectangle();
+            this.paddleX = r.getX();
+            this.paddleY = r.getY();
+            this.paddleWidth = r.getWidth();
+            this.paddleHeight = r.getHeight();
+            this.paddleColor = p.getColor();
+        }
+        if (this.hitPoints.length != blocks.size()) {
+            this.hitPoints = new int[blocks.size()];
+        }
+        for (int i = 0; i < this.hitPoints.length; i++) {
+            Block block = blocks.get(i);
+            this.hitPoints[i] = environment.contains(block) ? block.getHitPoints() : REMOVED;
+        }
+        this.score = scoreValue;
+        this.lives = livesValue;
+    }
+
+    /**
+     * The method returns the number of the snapshot.
+     * @return the number of the snapshot, 0 if it was never filled
+     */
+    public long getSequence() {
+        return this.sequence;
+    }
+
+    /**
+     * The method returns the number of balls.
+     * @return the number of balls
+     */
+    public int getBalls() {
+        return this.balls;
+    }
+
+    /**
+     * The method returns the x coordinate of the ball.
+     * @param i - index of a ball
+     * @return the x coordinate of the ball
+     */
+    public double getBallX(int i) {
+        return this.ballX[i];
+    }
+
+    /**
+     * The method returns the y coordinate of the ball.
+     * @param i - index of a ball
+     * @return the y coordinate of the ball
+     */
+    public double getBallY(int i) {
+        return this.ballY[i];
+    }
+
+    /**
+     * The method returns the radius of the ball.
+     * @param i - index of a ball
+     * @return the radius of the ball
+     */
+    public int getBallRadius(int i) {
+        return this.ballRadius[i];
+    }
+
+    /**
+     * The method returns the color of the ball.
+     * @param i - index of a ball
+     * @return the color of the ball
+     */
+    public Color getBallColor(int i) {
+        return this.ballColor[i];
+    }
+
+    /**
+     * The method returns true if there is a paddle, otherwise false.
+     * @return true if there is a paddle, otherwise false
+     */
+    public boolean hasPaddle() {
+        return this.paddle;
+    }
+
+    /**
+     * The method returns the x coordinate of the upper left corner of the paddle.
+     * @return the x coordinate of the upper left corner of the paddle
+     */
+    public double getPaddleX() {
+        return this.paddleX;
+    }
+
+    /**
+     * The method returns the y coordinate of the upper left corner of the paddle.
+     * @return the y coordinate of the upper left corner of the paddle
+     */
+    public double getPaddleY() {
+        return this.paddleY;
+    }
+
+    /**
+     * The method returns the width of the paddle.
+     * @return the width of the paddle
+     */
+    public double getPaddleWidth() {
+        return this.paddleWidth;
+    }
+
+    /**
+     * The method returns the height of the paddle.
+     * @return the height of the paddle
+     */
+    public double getPaddleHeight() {
+        return this.paddleHeight;
+    }
+
+    /**
+     * The method returns the color of the paddle.
+     * @return the color of the paddle
+     */
+    public Color getPaddleColor() {
+        return this.paddleColor;
+    }
+
+    /**
+     * The method returns the hit points of the block.
+     * @param i - index of a block
+     * @return the hit points of the block, or REMOVED
+     */
+    public int getHitPoints(int i) {
+        return this.hitPoints[i];
+    }
+
+    /**
+     * The method returns the score.
+     * @return the score
+     */
+    public int getScore() {
+        return this.score;
+    }
+
+    /**
+     * The method returns the remaining lives.
+     * @return the remaining lives
+     */
+    public int getLives() {
+        return this.lives;
+    }
+}
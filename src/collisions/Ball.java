@@ -14,11 +14,21 @@ import animations.GameLevel;
  * @author Barak Talmor
  */
 public class Ball implements Sprite {
+    // More hits than this in one step means the ball is squeezed, it stops
+    // for the rest of the step
+    private static final int MAX_HITS_PER_STEP = 4;
     private Point center;
     private int radius;
     private Color color;
     private Velocity velocity;
     private GameEnvironment gameEnv;
+    private CollisionInfo collision = new CollisionInfo(new Point(0, 0), null);
+    private boolean pendingHit;
+    private double stepDt;
+    // The part of the step which is still to move, and the distance to move
+    // before the ball touches the pending collision
+    private double remaining;
+    private double hitTravel;
 
     /**
      * Constructor to build ball object by a point, radius and color.
@@ -97,6 +107,24 @@ public class Ball implements Sprite {
         this.velocity = new Velocity(dx, dy);
     }
 
+    /**
+     * The method makes the ball stand for a ball which is kept by a ball
+     * system.
+     * @param x - the x coordinate of the center
+     * @param y - the y coordinate of the center
+     * @param dx - the velocity on the x axis
+     * @param dy - the velocity on the y axis
+     * @param r - the radius
+     * @param c - the color
+     */
+    void load(double x, double y, double dx, double dy, int r, Color c) {
+        this.center.setX(x);
+        this.center.setY(y);
+        this.velocity = new Velocity(dx, dy);
+        this.radius = r;
+        this.color = c;
+    }
+
     /**
      * The method set the gameEnvironment to the ball.
      * @param g - the gameEnvironment
@@ -164,29 +192,90 @@ public class Ball implements Sprite {
         double dy = collision.getY() - this.center.getY();
         double applayX = this.center.getX() + dx * partion;
         double applayY = this.center.getY() + dy * partion;
-        this.center = new Point(applayX, applayY);
+        this.center.setX(applayX);
+        this.center.setY(applayY);
     }
 
     /**
      * The method help the ball make a move.
      * If the ball is hitting the bounds, it changes
-     * his direction.
+     * his direction, and keeps moving the rest of the step in the new
+     * direction, so several collisions can happen in one step.
      * @param dt - amount of seconds passed since the last frame
      */
     public void moveOneStep(double dt) {
-        Velocity v = new Velocity(this.velocity.getDx() * dt, this.velocity.getDy() * dt);
-        Line trajectory = trajectory(dt, v);
-        CollisionInfo colInfo = this.gameEnv.getClosestCollision(trajectory);
-        if (colInfo == null) {
-            this.center = v.applyToPoint(this.center);
-        } else {
-            almostCollisionHit(colInfo.collisionPoint(), 0.5);
-            Velocity v1 = colInfo.collisionObject().hit(this, colInfo.collisionPoint(), this.velocity);
-            this.setVelocity(v1);
-            if (this.center.isPointOnLine(colInfo.collisionObject().getCollisionRectangle().getUpperLine())) {
-                this.center.setY(this.center.getY() - 1);
+        this.findCollision(dt);
+        this.resolveCollision();
+    }
+
+    /**
+     * The first half of a step, which only reads the game environment: the
+     * ball moves if its way is free, otherwise it remembers the collision.
+     * Balls can run this in parallel as long as nobody changes the
+     * environment meanwhile.
+     * @param dt - amount of seconds passed since the last frame
+     * @return true if the ball has a collision to resolve, otherwise false
+     */
+    public boolean findCollision(double dt) {
+        this.stepDt = dt;
+        this.remaining = 1;
+        this.pendingHit = this.castRemaining();
+        return this.pendingHit;
+    }
+
+    /**
+     * The second half of a step, which hits the objects on the way of the
+     * ball and may change the game. If an object was removed from the game
+     * since it was found, the way is checked again.
+     */
+    public void resolveCollision() {
+        int hits = 0;
+        while (this.pendingHit) {
+            Collidable object = this.collision.collisionObject();
+            if (this.gameEnv.contains(object)) {
+                double speed = this.velocity.getSpeed();
+                double distance = speed * this.stepDt * this.remaining;
+                this.center.setX(this.center.getX() + this.velocity.getDx() / speed * this.hitTravel);
+                this.center.setY(this.center.getY() + this.velocity.getDy() / speed * this.hitTravel);
+                this.remaining *= 1 - this.hitTravel / distance;
+                Velocity v1 = object.hit(this, this.collision, this.velocity);
+                this.setVelocity(v1);
+                hits++;
+                if (hits >= MAX_HITS_PER_STEP) {
+                    this.remaining = 0;
+                }
             }
+            this.pendingHit = this.remaining > 0 && this.castRemaining();
+        }
+    }
+
+    /**
+     * The method looks for a collision on the rest of the step. Working on
+     * primitives and reusing the collision info, so a step without a hit
+     * does not allocate anything. If the way is free the ball moves to the
+     * end of the step.
+     * @return true if there is a collision on the way, otherwise false
+     */
+    private boolean castRemaining() {
+        double speed = this.velocity.getSpeed();
+        double distance = speed * this.stepDt * this.remaining;
+        if (distance <= 0) {
+            this.remaining = 0;
+            return false;
+        }
+        double dirX = this.velocity.getDx() / speed, dirY = this.velocity.getDy() / speed;
+        double x = this.center.getX(), y = this.center.getY();
+        // Looking the radius further, so the ball stops when its edge touches
+        double reach = distance + this.radius;
+        if (!this.gameEnv.getClosestCollision(x, y, x + dirX * reach, y + dirY * reach, this.collision)) {
+            this.center.setX(x + dirX * distance);
+            this.center.setY(y + dirY * distance);
+            this.remaining = 0;
+            return false;
         }
+        double contact = this.collision.collisionPoint().distance(this.center);
+        this.hitTravel = Math.max(0, Math.min(distance, contact - this.radius));
+        return true;
     }
 
     /**
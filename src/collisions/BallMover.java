@@ -0,0 +1,23 @@
+package collisions;
+
+import sprites.Sprite;
+
+/**
+ * The interface of a sprite which owns a group of balls and moves them all
+ * when time passes, instead of every ball moving itself.
+ * @author Barak Talmor
+ */
+public interface BallMover extends Sprite {
+    /**
+     * The method adds a ball to the mover.
+     * @param b - ball
+     */
+    void addBall(Ball b);
+
+    /**
+     * The method removes a ball from the mover.
+     * @param b - ball
+     * @return true if the ball was in the mover, otherwise false
+     */
+    boolean removeBall(Ball b);
+}
@@ -0,0 +1,315 @@
+package collisions;
+
+import java.awt.Color;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import animations.ImageDrawSurface;
+import biuoop.DrawSurface;
+import geometryprimitives.Point;
+import io.ImageCache;
+
+/**
+ * Keeps many balls in parallel arrays instead of a ball object for each,
+ * for levels and power-ups with thousands of balls. A step of a ball which
+ * flies freely only reads and writes the arrays. A ball which is about to
+ * hit something is loaded into a single flyweight ball, which plays the
+ * step with the collision rules of Ball, so blocks and hit listeners get a
+ * real ball as the hitter. A listener which removes the flyweight from the
+ * game removes the ball it stands for.
+ * The balls are moved in the order they were added, like the balls of the
+ * other ball movers, and removed balls are taken out at the end of the
+ * frame, so the order never changes.
+ * @author Barak Talmor
+ */
+public class BallSystem implements BallMover {
+    private static final int INITIAL_CAPACITY = 16;
+    private GameEnvironment environment;
+    private double[] x;
+    private double[] y;
+    private double[] dx;
+    private double[] dy;
+    private int[] radius;
+    private Color[] colors;
+    private boolean[] removed;
+    private int size;
+    private int removedCount;
+    // The ball which plays the steps with a collision, and the index of the
+    // ball it stands for, or -1
+    private Ball flyweight;
+    private int current;
+    // The ball which getBall returns
+    private Ball view;
+    private CollisionInfo probe;
+    // The images of the balls by their color and radius, and the last one
+    private Map<Long, BufferedImage> sprites;
+    private Color spriteColor;
+    private int spriteRadius;
+    private BufferedImage lastSprite;
+
+    /**
+     * The constructor of the ball system.
+     * @param environment - the game environment of the balls
+     */
+    public BallSystem(GameEnvironment environment) {
+        this.environment = environment;
+        this.x = new double[INITIAL_CAPACITY];
+        this.y = new double[INITIAL_CAPACITY];
+        this.dx = new double[INITIAL_CAPACITY];
+        this.dy = new double[INITIAL_CAPACITY];
+        this.radius = new int[INITIAL_CAPACITY];
+        this.colors = new Color[INITIAL_CAPACITY];
+        this.removed = new boolean[INITIAL_CAPACITY];
+        this.size = 0;
+        this.removedCount = 0;
+        this.flyweight = new Ball(new Point(0, 0), 0, Color.LIGHT_GRAY, environment);
+        this.current = -1;
+        this.view = new Ball(new Point(0, 0), 0, Color.LIGHT_GRAY, environment);
+        this.probe = new CollisionInfo(new Point(0, 0), null);
+        this.sprites = new HashMap<Long, BufferedImage>();
+    }
+
+    /**
+     * The method adds a ball to the system without building a ball object.
+     * @param centerX - the x coordinate of the center
+     * @param centerY - the y coordinate of the center
+     * @param velocityX - the velocity on the x axis, in pixels per second
+     * @param velocityY - the velocity on the y axis, in pixels per second
+     * @param r - the radius
+     * @param color - the color
+     * @return the index of the ball
+     */
+    public int add(double centerX, double centerY, double velocityX, double velocityY, int r, Color color) {
+        if (this.size == this.x.length) {
+            this.grow();
+        }
+        this.x[this.size] = centerX;
+        this.y[this.size] = centerY;
+        this.dx[this.size] = velocityX;
+        this.dy[this.size] = velocityY;
+        this.radius[this.size] = r;
+        this.colors[this.size] = color;
+        this.removed[this.size] = false;
+        return this.size++;
+    }
+
+    /**
+     * The method doubles the capacity of the arrays.
+     */
+    private void grow() {
+        int capacity = this.x.length * 2;
+        this.x = Arrays.copyOf(this.x, capacity);
+        this.y = Arrays.copyOf(this.y, capacity);
+        this.dx = Arrays.copyOf(this.dx, capacity);
+        this.dy = Arrays.copyOf(this.dy, capacity);
+        this.radius = Arrays.copyOf(this.radius, capacity);
+        this.colors = Arrays.copyOf(this.colors, capacity);
+        this.removed = Arrays.copyOf(this.removed, capacity);
+    }
+
+    /**
+     * The method adds a copy of the ball to the system, the ball object
+     * itself is not kept.
+     * @param b - ball
+     */
+    @Override
+    public void addBall(Ball b) {
+        this.add(b.getCenter().getX(), b.getCenter().getY(), b.getVelocity().getDx(), b.getVelocity().getDy(),
+                b.getSize(), b.getColor());
+    }
+
+    /**
+     * The method removes a ball which is played by the flyweight, while it
+     * hits something. Other ball objects are not in the system.
+     * @param b - ball
+     * @return true if the ball was in the system, otherwise false
+     */
+    @Override
+    public boolean removeBall(Ball b) {
+        if (b != this.flyweight || this.current < 0 || this.removed[this.current]) {
+            return false;
+        }
+        this.removed[this.current] = true;
+        this.removedCount++;
+        return true;
+    }
+
+    /**
+     * The method removes all the balls.
+     */
+    public void clear() {
+        this.size = 0;
+        this.removedCount = 0;
+        this.current = -1;
+    }
+
+    /**
+     * The method returns the number of balls in the system.
+     * @return size
+     */
+    public int size() {
+        return this.size - this.removedCount;
+    }
+
+    /**
+     * The method returns a ball of the system as a ball object. The object
+     * is the same one on every call and it is only valid until the next
+     * call, changing it does not change the system.
+     * @param index - the index of the ball
+     * @return the ball, or null if there is no such ball
+     */
+    public Ball getBall(int index) {
+        if (index < 0 || index >= this.size) {
+            return null;
+        }
+        this.load(this.view, index);
+        return this.view;
+    }
+
+    /**
+     * The method puts a ball of the system at the given center, its
+     * velocity stays the same.
+     * @param index - the index of the ball
+     * @param centerX - the x coordinate of the center
+     * @param centerY - the y coordinate of the center
+     */
+    public void moveBall(int index, double centerX, double centerY) {
+        this.x[index] = centerX;
+        this.y[index] = centerY;
+    }
+
+    /**
+     * The method returns copies of all the balls as ball objects.
+     * @return list of new balls
+     */
+    public List<Ball> getBalls() {
+        List<Ball> list = new ArrayList<Ball>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            if (!this.removed[i]) {
+                Ball b = new Ball(new Point(this.x[i], this.y[i]), this.radius[i], this.colors[i], this.environment);
+                b.setVelocity(this.dx[i], this.dy[i]);
+                list.add(b);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * The method loads a ball of the system into a ball object.
+     * @param b - the ball object
+     * @param i - the index of the ball
+     */
+    private void load(Ball b, int i) {
+        b.load(this.x[i], this.y[i], this.dx[i], this.dy[i], this.radius[i], this.colors[i]);
+    }
+
+    @Override
+    public void timePassed(double dt) {
+        // Balls which are added while the balls move start on the next frame
+        int n = this.size;
+        for (int i = 0; i < n; i++) {
+            double vx = this.dx[i], vy = this.dy[i];
+            double speed = Math.sqrt(vx * vx + vy * vy);
+            double distance = speed * dt;
+            if (this.removed[i] || distance <= 0) {
+                continue;
+            }
+            double dirX = vx / speed, dirY = vy / speed;
+            double px = this.x[i], py = this.y[i];
+            double reach = distance + this.radius[i];
+            if (!this.environment.getClosestCollision(px, py, px + dirX * reach, py + dirY * reach, this.probe)) {
+                this.x[i] = px + dirX * distance;
+                this.y[i] = py + dirY * distance;
+                continue;
+            }
+            this.current = i;
+            this.load(this.flyweight, i);
+            this.flyweight.moveOneStep(dt);
+            this.x[i] = this.flyweight.getCenter().getX();
+            this.y[i] = this.flyweight.getCenter().getY();
+            this.dx[i] = this.flyweight.getVelocity().getDx();
+            this.dy[i] = this.flyweight.getVelocity().getDy();
+            this.current = -1;
+        }
+        if (this.removedCount > 0) {
+            this.compact();
+        }
+    }
+
+    /**
+     * The method takes the removed balls out of the arrays, keeping the
+     * order of the others.
+     */
+    private void compact() {
+        int to = 0;
+        for (int from = 0; from < this.size; from++) {
+            if (this.removed[from]) {
+                continue;
+            }
+            this.x[to] = this.x[from];
+            this.y[to] = this.y[from];
+            this.dx[to] = this.dx[from];
+            this.dy[to] = this.dy[from];
+            this.radius[to] = this.radius[from];
+            this.colors[to] = this.colors[from];
+            this.removed[to] = false;
+            to++;
+        }
+        for (int i = to; i < this.size; i++) {
+            this.colors[i] = null;
+        }
+        this.size = to;
+        this.removedCount = 0;
+    }
+
+    /**
+     * The method draws all the balls in one pass. Every ball is a single
+     * image of its fill and frame, drawn once for every color and radius,
+     * instead of three color changes and two circles.
+     * @param d - the surface
+     */
+    @Override
+    public void drawOn(DrawSurface d) {
+        for (int i = 0; i < this.size; i++) {
+            if (!this.removed[i]) {
+                int r = this.radius[i];
+                d.drawImage((int) this.x[i] - r, (int) this.y[i] - r, this.sprite(this.colors[i], r));
+            }
+        }
+    }
+
+    /**
+     * The method returns the image of a ball of the given color and radius,
+     * which looks like a ball object drawing itself.
+     * @param color - the color of the ball
+     * @param r - the radius of the ball
+     * @return the image
+     */
+    private BufferedImage sprite(Color color, int r) {
+        // Balls mostly come in runs of the same look
+        if (color == this.spriteColor && r == this.spriteRadius) {
+            return this.lastSprite;
+        }
+        Long key = ((long) color.getRGB() << 32) | r;
+        BufferedImage image = this.sprites.get(key);
+        if (image == null) {
+            image = ImageCache.compatibleImage(2 * r + 1, 2 * r + 1, Transparency.BITMASK);
+            ImageDrawSurface surface = new ImageDrawSurface(image);
+            surface.setColor(color);
+            surface.fillCircle(r, r, r);
+            surface.setColor(Color.BLACK);
+            surface.drawCircle(r, r, r);
+            surface.dispose();
+            this.sprites.put(key, image);
+        }
+        this.spriteColor = color;
+        this.spriteRadius = r;
+        this.lastSprite = image;
+        return image;
+    }
+}
@@ -7,7 +7,6 @@ import java.util.List;
 import animations.Fill;
 import animations.GameLevel;
 import biuoop.DrawSurface;
-import geometryprimitives.Point;
 import geometryprimitives.Rectangle;
 import listeners.HitListener;
 import sprites.Sprite;
@@ -95,6 +94,14 @@ public class Block implements Collidable, Sprite, HitNotifier {
         return this.hitPoints;
     }
 
+    /**
+     * The method sets the number of hit points of the block.
+     * @param hitPoints - the number of the block can be hit
+     */
+    public void setHitPoints(int hitPoints) {
+        this.hitPoints = hitPoints;
+    }
+
     /**
      * Return the "collision shape" of the object.
      * @return rect - the rectangle of the block
@@ -104,23 +111,21 @@ public class Block implements Collidable, Sprite, HitNotifier {
     }
 
     /**
-     * The method return new velocity by checking where the collisionPoint was
-     * hit and decrease the hitPoints.
+     * The method return new velocity by the face which was hit and decrease
+     * the hitPoints.
      * @param hitter - the ball that hits
-     * @param collisionPoint - the location where was the collision
+     * @param collision - the collision, with the face which was hit
      * @param currentVelocity - of the ball
      * @return Velocity - the new velocity
      */
-    public Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity) {
+    public Velocity hit(Ball hitter, CollisionInfo collision, Velocity currentVelocity) {
         double dx = currentVelocity.getDx(), dy = currentVelocity.getDy();
         this.hitPoints--;
         this.notifyHit(hitter);
-        if (collisionPoint.isPointOnLine(this.rect.getUpperLine())
-                || collisionPoint.isPointOnLine(this.rect.getLowerLine())) {
+        if ((collision.face() & (Rectangle.UPPER | Rectangle.LOWER)) != 0) {
             dy *= -1;
         }
-        if (collisionPoint.isPointOnLine(this.rect.getLeftLine())
-                || collisionPoint.isPointOnLine(this.rect.getRightLine())) {
+        if ((collision.face() & (Rectangle.LEFT | Rectangle.RIGHT)) != 0) {
             dx *= -1;
         }
         // Changing velocity by where it was hit.
@@ -135,15 +140,31 @@ public class Block implements Collidable, Sprite, HitNotifier {
         if (this.hitPoints < 0) {
             this.hitPoints = 1;
         }
-        this.fillColor.drawon(surface, this.hitPoints, (int) this.rect.getUpperLeft().getX(),
-                (int) this.rect.getUpperLeft().getY(), (int) this.rect.getWidth(), (int) this.rect.getHeight());
+        this.fillColor.drawon(surface, this.hitPoints, (int) this.rect.getX(),
+                (int) this.rect.getY(), (int) this.rect.getWidth(), (int) this.rect.getHeight());
         if (this.frameColor != null) {
             surface.setColor(this.frameColor);
-            surface.drawRectangle((int) this.rect.getUpperLeft().getX(), (int) this.rect.getUpperLeft().getY(),
+            surface.drawRectangle((int) this.rect.getX(), (int) this.rect.getY(),
                     (int) this.rect.getWidth(), (int) this.rect.getHeight());
         }
     }
 
+    /**
+     * The method returns the fill of the block.
+     * @return fillColor
+     */
+    public Fill getFill() {
+        return this.fillColor;
+    }
+
+    /**
+     * The method returns the color of the frame of the block.
+     * @return frameColor, or null if the frame is not drawn
+     */
+    public Color getFrameColor() {
+        return this.frameColor;
+    }
+
     /**
      * Notify hit to the block.
      * @param hitter - the ball that hits
@@ -0,0 +1,224 @@
+package collisions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import geometryprimitives.Rectangle;
+
+/**
+ * Keeps blocks by integer ids, with their bounds in parallel arrays, so
+ * loops over the blocks read the arrays instead of asking every block for
+ * its rectangle. A block gets the next id when it is first added and keeps
+ * it for the life of the store, also when it is removed and added again, so
+ * hit listeners can hold ids instead of blocks. Removing a block only marks
+ * its id, so clearing a level takes linear time, and the blocks are always
+ * visited in the order of their ids, which is the order they were first
+ * added in.
+ * @author Barak Talmor
+ */
+public class BlockStore {
+    private static final int INITIAL_CAPACITY = 16;
+    // The block of every id, or null if it was removed
+    private Block[] blocks;
+    private double[] x;
+    private double[] y;
+    private double[] width;
+    private double[] height;
+    private int end;
+    private int size;
+    private Map<Block, Integer> ids;
+
+    /**
+     * The constructor of the block store.
+     */
+    public BlockStore() {
+        this.blocks = new Block[INITIAL_CAPACITY];
+        this.x = new double[INITIAL_CAPACITY];
+        this.y = new double[INITIAL_CAPACITY];
+        this.width = new double[INITIAL_CAPACITY];
+        this.height = new double[INITIAL_CAPACITY];
+        this.end = 0;
+        this.size = 0;
+        this.ids = new IdentityHashMap<Block, Integer>();
+    }
+
+    /**
+     * The method adds the block to the store. A block which was in the store
+     * before gets its old id back.
+     * @param block - the block
+     * @return the id of the block
+     */
+    public int add(Block block) {
+        Integer id = this.ids.get(block);
+        if (id == null) {
+            if (this.end == this.blocks.length) {
+                this.grow();
+            }
+            id = this.end++;
+            this.ids.put(block, id);
+        }
+        this.put(id, block);
+        return id;
+    }
+
+    /**
+     * The method doubles the capacity of the arrays.
+     */
+    private void grow() {
+        int capacity = this.blocks.length * 2;
+        this.blocks = Arrays.copyOf(this.blocks, capacity);
+        this.x = Arrays.copyOf(this.x, capacity);
+        this.y = Arrays.copyOf(this.y, capacity);
+        this.width = Arrays.copyOf(this.width, capacity);
+        this.height = Arrays.copyOf(this.height, capacity);
+    }
+
+    /**
+     * The method puts the block and its bounds at the id.
+     * @param id - the id
+     * @param block - the block
+     */
+    private void put(int id, Block block) {
+        if (this.blocks[id] == null) {
+            this.size++;
+        }
+        this.blocks[id] = block;
+        Rectangle r = block.getCollisionRectangle();
+        this.x[id] = r.getX();
+        this.y[id] = r.getY();
+        this.width[id] = r.getWidth();
+        this.height[id] = r.getHeight();
+    }
+
+    /**
+     * The method removes the block from the store, its id stays its own.
+     * @param block - the block
+     * @return true if the block was in the store, otherwise false
+     */
+    public boolean remove(Block block) {
+        int id = this.idOf(block);
+        if (id < 0 || this.blocks[id] != block) {
+            return false;
+        }
+        this.blocks[id] = null;
+        this.size--;
+        return true;
+    }
+
+    /**
+     * The method puts a block in place of another one, under the id of the
+     * old block. The new block is added if the old one is not in the store.
+     * @param old - the block in the store
+     * @param block - the new block
+     * @return the id of the new block
+     */
+    public int replace(Block old, Block block) {
+        int id = this.idOf(old);
+        if (id < 0 || this.blocks[id] != old || this.ids.containsKey(block)) {
+            return this.add(block);
+        }
+        this.ids.remove(old);
+        this.ids.put(block, id);
+        this.put(id, block);
+        return id;
+    }
+
+    /**
+     * The method checks if the block is in the store.
+     * @param block - the block
+     * @return true if it is in the store, otherwise false
+     */
+    public boolean contains(Block block) {
+        int id = this.idOf(block);
+        return id >= 0 && this.blocks[id] == block;
+    }
+
+    /**
+     * The method returns the id of a block which was added to the store.
+     * @param block - the block
+     * @return the id, or -1 if the block was never added
+     */
+    public int idOf(Block block) {
+        Integer id = this.ids.get(block);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * The method returns the block of an id.
+     * @param id - the id
+     * @return the block, or null if it is not in the store
+     */
+    public Block get(int id) {
+        return id < 0 || id >= this.end ? null : this.blocks[id];
+    }
+
+    /**
+     * The method returns the number of blocks in the store.
+     * @return size
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * The method returns the id after the last one given, every id of the
+     * store is below it.
+     * @return end
+     */
+    public int end() {
+        return this.end;
+    }
+
+    /**
+     * The method returns the left bound of the block of an id.
+     * @param id - the id
+     * @return x
+     */
+    public double getX(int id) {
+        return this.x[id];
+    }
+
+    /**
+     * The method returns the upper bound of the block of an id.
+     * @param id - the id
+     * @return y
+     */
+    public double getY(int id) {
+        return this.y[id];
+    }
+
+    /**
+     * The method returns the width of the block of an id.
+     * @param id - the id
+     * @return width
+     */
+    public double getWidth(int id) {
+        return this.width[id];
+    }
+
+    /**
+     * The method returns the height of the block of an id.
+     * @param id - the id
+     * @return height
+     */
+    public double getHeight(int id) {
+        return this.height[id];
+    }
+
+    /**
+     * The method returns the blocks of the store in the order of their ids.
+     * @return a new list of the blocks
+     */
+    public List<Block> getBlocks() {
+        List<Block> list = new ArrayList<Block>(this.size);
+        for (int id = 0; id < this.end; id++) {
+            if (this.blocks[id] != null) {
+                list.add(this.blocks[id]);
+            }
+        }
+        return list;
+    }
+}
@@ -1,5 +1,4 @@
 package collisions;
-import geometryprimitives.Point;
 import geometryprimitives.Rectangle;
 
 /**
@@ -17,9 +16,10 @@ public interface Collidable {
     * The method returns new velocity expected after the hit (based on
     * the force the object inflicted on us).
     * @param hitter - the ball that hits
-    * @param collisionPoint - the point where the collision happened
+    * @param collision - the collision, with its point and the face which
+    *        was hit
     * @param currentVelocity - the current velocity of the object
     * @return velocity - new velocity
     */
-   Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity);
+   Velocity hit(Ball hitter, CollisionInfo collision, Velocity currentVelocity);
 }
\ No newline at end of file
@@ -0,0 +1,285 @@
+package collisions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import geometryprimitives.Rectangle;
+
+/**
+ * A uniform grid which buckets collidable objects by the cells their
+ * rectangles cover, so a trajectory only has to look at the cells it crosses.
+ * @author Barak Talmor
+ */
+public class CollisionGrid {
+    public static final double CELL_SIZE = 50;
+    private double minX;
+    private double minY;
+    private int cols;
+    private int rows;
+    private List<List<Collidable>> cells;
+    // In the order they were added, for placing them again when the grid grows
+    private Collection<Collidable> members;
+
+    /**
+     * The constructor of the grid, covering the default game screen.
+     */
+    public CollisionGrid() {
+        this(0, 0, 800, 600);
+    }
+
+    /**
+     * The constructor of the grid covering the given area.
+     * @param minX - the left bound of the grid
+     * @param minY - the upper bound of the grid
+     * @param maxX - the right bound of the grid
+     * @param maxY - the lower bound of the grid
+     */
+    public CollisionGrid(double minX, double minY, double maxX, double maxY) {
+        this.members = new LinkedHashSet<Collidable>();
+        this.resize(minX, minY, maxX, maxY);
+    }
+
+    /**
+     * The method builds empty cells which cover the given area.
+     * @param x1 - the left bound
+     * @param y1 - the upper bound
+     * @param x2 - the right bound
+     * @param y2 - the lower bound
+     */
+    private void resize(double x1, double y1, double x2, double y2) {
+        this.minX = Math.floor(x1 / CELL_SIZE) * CELL_SIZE;
+        this.minY = Math.floor(y1 / CELL_SIZE) * CELL_SIZE;
+        this.cols = Math.max(1, (int) Math.ceil((x2 - this.minX) / CELL_SIZE) + 1);
+        this.rows = Math.max(1, (int) Math.ceil((y2 - this.minY) / CELL_SIZE) + 1);
+        this.cells = new ArrayList<List<Collidable>>(this.cols * this.rows);
+        for (int i = 0; i < this.cols * this.rows; i++) {
+            this.cells.add(new ArrayList<Collidable>());
+        }
+    }
+
+    /**
+     * The method adds the collidable to every cell its rectangle covers.
+     * The grid grows when the rectangle is out of its bounds.
+     * @param c - collidable object
+     */
+    public void add(Collidable c) {
+        Rectangle r = c.getCollisionRectangle();
+        double x1 = r.getX(), y1 = r.getY();
+        double x2 = x1 + r.getWidth(), y2 = y1 + r.getHeight();
+        if (x1 < this.minX || y1 < this.minY || x2 >= this.maxX() || y2 >= this.maxY()) {
+            List<Collidable> old = new ArrayList<Collidable>(this.members);
+            this.resize(Math.min(x1, this.minX), Math.min(y1, this.minY),
+                    Math.max(x2, this.maxX()), Math.max(y2, this.maxY()));
+            this.members.clear();
+            for (Collidable member : old) {
+                this.place(member);
+            }
+        }
+        this.place(c);
+    }
+
+    /**
+     * The method removes the collidable from every cell its rectangle covers.
+     * @param c - collidable object
+     */
+    public void remove(Collidable c) {
+        Rectangle r = c.getCollisionRectangle();
+        int col1 = this.colOf(r.getX()), col2 = this.colOf(r.getX() + r.getWidth());
+        int row1 = this.rowOf(r.getY()), row2 = this.rowOf(r.getY() + r.getHeight());
+        for (int row = row1; row <= row2; row++) {
+            for (int col = col1; col <= col2; col++) {
+                this.cells.get(row * this.cols + col).remove(c);
+            }
+        }
+        this.members.remove(c);
+    }
+
+    /**
+     * The method puts the collidable in its cells, the bounds must contain it.
+     * @param c - collidable object
+     */
+    private void place(Collidable c) {
+        Rectangle r = c.getCollisionRectangle();
+        int col1 = this.colOf(r.getX()), col2 = this.colOf(r.getX() + r.getWidth());
+        int row1 = this.rowOf(r.getY()), row2 = this.rowOf(r.getY() + r.getHeight());
+        for (int row = row1; row <= row2; row++) {
+            for (int col = col1; col <= col2; col++) {
+                this.cells.get(row * this.cols + col).add(c);
+            }
+        }
+        this.members.add(c);
+    }
+
+    /**
+     * @return the right bound of the grid
+     */
+    private double maxX() {
+        return this.minX + this.cols * CELL_SIZE;
+    }
+
+    /**
+     * @return the lower bound of the grid
+     */
+    private double maxY() {
+        return this.minY + this.rows * CELL_SIZE;
+    }
+
+    /**
+     * The method returns the column of the x coordinate, clamped to the grid.
+     * @param x - coordinate
+     * @return column
+     */
+    private int colOf(double x) {
+        return Math.max(0, Math.min(this.cols - 1, (int) Math.floor((x - this.minX) / CELL_SIZE)));
+    }
+
+    /**
+     * The method returns the row of the y coordinate, clamped to the grid.
+     * @param y - coordinate
+     * @return row
+     */
+    private int rowOf(double y) {
+        return Math.max(0, Math.min(this.rows - 1, (int) Math.floor((y - this.minY) / CELL_SIZE)));
+    }
+
+    /**
+     * Walks the cells crossed by a segment in the order the segment crosses
+     * them (Amanatides-Woo traversal). The segment is given as
+     * start + t * (end - start) for t in [0, 1]. A walker is bound to a grid
+     * only from begin to end, so one walker of a thread serves every grid
+     * and keeps none of them reachable.
+     */
+    public static class Walker {
+        private CollisionGrid grid;
+        private int col;
+        private int row;
+        private int stepCol;
+        private int stepRow;
+        private double tMaxX;
+        private double tMaxY;
+        private double tDeltaX;
+        private double tDeltaY;
+        private double tExit;
+        private boolean first;
+        private boolean done;
+
+        /**
+         * The method starts walking along the segment over the cells of the
+         * grid.
+         * @param cellGrid - the grid
+         * @param x0 - x of the start of the segment
+         * @param y0 - y of the start of the segment
+         * @param x1 - x of the end of the segment
+         * @param y1 - y of the end of the segment
+         */
+        public void begin(CollisionGrid cellGrid, double x0, double y0, double x1, double y1) {
+            this.grid = cellGrid;
+            double minX = cellGrid.minX, minY = cellGrid.minY;
+            double dx = x1 - x0, dy = y1 - y0;
+            double tEnter = 0;
+            this.tExit = 1;
+            this.done = false;
+            this.first = true;
+            // Clipping the segment to the bounds of the grid
+            if (dx == 0) {
+                if (x0 < minX || x0 > cellGrid.maxX()) {
+                    this.done = true;
+                }
+            } else {
+                double ta = (minX - x0) / dx, tb = (cellGrid.maxX() - x0) / dx;
+                tEnter = Math.max(tEnter, Math.min(ta, tb));
+                this.tExit = Math.min(this.tExit, Math.max(ta, tb));
+            }
+            if (dy == 0) {
+                if (y0 < minY || y0 > cellGrid.maxY()) {
+                    this.done = true;
+                }
+            } else {
+                double ta = (minY - y0) / dy, tb = (cellGrid.maxY() - y0) / dy;
+                tEnter = Math.max(tEnter, Math.min(ta, tb));
+                this.tExit = Math.min(this.tExit, Math.max(ta, tb));
+            }
+            if (this.done || tEnter > this.tExit) {
+                this.done = true;
+                return;
+            }
+            this.col = cellGrid.colOf(x0 + dx * tEnter);
+            this.row = cellGrid.rowOf(y0 + dy * tEnter);
+            this.stepCol = dx > 0 ? 1 : -1;
+            this.stepRow = dy > 0 ? 1 : -1;
+            if (dx == 0) {
+                this.tMaxX = Double.POSITIVE_INFINITY;
+                this.tDeltaX = Double.POSITIVE_INFINITY;
+            } else {
+                double boundary = minX + (dx > 0 ? this.col + 1 : this.col) * CELL_SIZE;
+                this.tMaxX = (boundary - x0) / dx;
+                this.tDeltaX = CELL_SIZE / Math.abs(dx);
+            }
+            if (dy == 0) {
+                this.tMaxY = Double.POSITIVE_INFINITY;
+                this.tDeltaY = Double.POSITIVE_INFINITY;
+            } else {
+                double boundary = minY + (dy > 0 ? this.row + 1 : this.row) * CELL_SIZE;
+                this.tMaxY = (boundary - y0) / dy;
+                this.tDeltaY = CELL_SIZE / Math.abs(dy);
+            }
+        }
+
+        /**
+         * The method moves to the next cell crossed by the segment.
+         * @return true if there is such a cell, otherwise false
+         */
+        public boolean next() {
+            if (this.done) {
+                return false;
+            }
+            if (this.first) {
+                this.first = false;
+                return true;
+            }
+            if (Math.min(this.tMaxX, this.tMaxY) >= this.tExit) {
+                this.done = true;
+                return false;
+            }
+            if (this.tMaxX < this.tMaxY) {
+                this.col += this.stepCol;
+                this.tMaxX += this.tDeltaX;
+            } else {
+                this.row += this.stepRow;
+                this.tMaxY += this.tDeltaY;
+            }
+            if (this.col < 0 || this.col >= this.grid.cols || this.row < 0 || this.row >= this.grid.rows) {
+                this.done = true;
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * The method returns the collidables of the current cell.
+         * @return list of collidables
+         */
+        public List<Collidable> cell() {
+            return this.grid.cells.get(this.row * this.grid.cols + this.col);
+        }
+
+        /**
+         * The method returns the segment parameter where it leaves the current
+         * cell. Nothing which is only in later cells can be hit before it.
+         * @return exit parameter
+         */
+        public double exitParam() {
+            return Math.min(this.tExit, Math.min(this.tMaxX, this.tMaxY));
+        }
+
+        /**
+         * The method ends the walk and lets go of the grid.
+         */
+        public void end() {
+            this.grid = null;
+            this.done = true;
+        }
+    }
+}
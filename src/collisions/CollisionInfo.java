@@ -1,5 +1,6 @@
 package collisions;
 import geometryprimitives.Point;
+import geometryprimitives.Rectangle;
 
 /**
  * The calss which contains method for the collision info of the collidable object.
@@ -9,6 +10,12 @@ import geometryprimitives.Point;
 public class CollisionInfo {
     private Point collisionPoint;
     private Collidable collisionObject;
+    private double time;
+    private int face;
+    private double normalX;
+    private double normalY;
+    // Where the rectangles of a query write the faces they are entered by
+    private int[] entryFaces;
 
    /**
      * The constructor of the CollisionInfo object.
@@ -18,6 +25,40 @@ public class CollisionInfo {
    public CollisionInfo(Point collisionPoint, Collidable collisionObject) {
        this.collisionPoint = collisionPoint;
        this.collisionObject = collisionObject;
+       this.entryFaces = new int[1];
+   }
+
+   /**
+    * The method returns the array which a query of the closest collision
+    * passes to the rectangles it checks, for their faces.
+    * @return entryFaces
+    */
+   int[] entryFaces() {
+       return this.entryFaces;
+   }
+
+   /**
+    * The method reuses this info for another collision, so moving objects
+    * can keep one info and not allocate on every step.
+    * @param x - the x coordinate of the collision point
+    * @param y - the y coordinate of the collision point
+    * @param object - the object where was the collision on
+    * @param t - the parameter of the collision along the checked segment
+    * @param faces - the faces of the object which were hit
+    */
+   void update(double x, double y, Collidable object, double t, int faces) {
+       this.collisionPoint.setX(x);
+       this.collisionPoint.setY(y);
+       this.collisionObject = object;
+       this.time = t;
+       this.face = faces;
+       this.normalX = ((faces & Rectangle.RIGHT) != 0 ? 1 : 0) - ((faces & Rectangle.LEFT) != 0 ? 1 : 0);
+       this.normalY = ((faces & Rectangle.LOWER) != 0 ? 1 : 0) - ((faces & Rectangle.UPPER) != 0 ? 1 : 0);
+       if (this.normalX != 0 && this.normalY != 0) {
+           // A corner, the normal goes out diagonally
+           this.normalX *= Math.sqrt(0.5);
+           this.normalY *= Math.sqrt(0.5);
+       }
    }
 
    /**
@@ -35,4 +76,40 @@ public class CollisionInfo {
    public Collidable collisionObject() {
        return this.collisionObject;
    }
+
+   /**
+    * The method return the faces of the object which were hit, as the
+    * UPPER, LOWER, LEFT and RIGHT bits of Rectangle. A corner hit has two.
+    * @return face
+    */
+   public int face() {
+       return this.face;
+   }
+
+   /**
+    * The method return the x of the unit normal of the face which was hit,
+    * pointing out of the object.
+    * @return normalX
+    */
+   public double normalX() {
+       return this.normalX;
+   }
+
+   /**
+    * The method return the y of the unit normal of the face which was hit,
+    * pointing out of the object.
+    * @return normalY
+    */
+   public double normalY() {
+       return this.normalY;
+   }
+
+   /**
+    * The method return the parameter of the collision along the checked
+    * segment, from 0 at its start to 1 at its end.
+    * @return time
+    */
+   public double time() {
+       return this.time;
+   }
 }
\ No newline at end of file
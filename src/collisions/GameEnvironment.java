@@ -1,6 +1,8 @@
 package collisions;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import geometryprimitives.Line;
 import geometryprimitives.Point;
@@ -10,13 +12,29 @@ import geometryprimitives.Point;
  * @author Barak Talmor
  */
 public class GameEnvironment {
-    private ArrayList<Collidable> colliList;
+    // One walker for every thread which queries any environment, it only
+    // holds a grid while a query walks it
+    private static final ThreadLocal<CollisionGrid.Walker> WALKERS = new ThreadLocal<CollisionGrid.Walker>() {
+        @Override
+        protected CollisionGrid.Walker initialValue() {
+            return new CollisionGrid.Walker();
+        }
+    };
+    private Set<Collidable> members;
+    // Blocks never move, so they are kept by id and bucketed in the grid.
+    // Anything else (the paddle) is checked directly on every query.
+    private BlockStore blocks;
+    private CollisionGrid grid;
+    private ArrayList<Collidable> movingList;
 
     /**
      * The constructor for the gameEnvironment.
      */
     public GameEnvironment() {
-        this.colliList = new ArrayList<Collidable>();
+        this.members = new HashSet<Collidable>();
+        this.blocks = new BlockStore();
+        this.grid = new CollisionGrid();
+        this.movingList = new ArrayList<Collidable>();
     }
 
     /**
@@ -24,7 +42,13 @@ public class GameEnvironment {
      * @param c - collidable object
      */
     public void addCollidable(Collidable c) {
-        this.colliList.add(c);
+        this.members.add(c);
+        if (c instanceof Block) {
+            this.blocks.add((Block) c);
+            this.grid.add(c);
+        } else {
+            this.movingList.add(c);
+        }
     }
 
     /**
@@ -32,16 +56,43 @@ public class GameEnvironment {
      * @param c - collidable object
      */
     public void removeCollidable(Collidable c) {
-        this.colliList.remove(c);
+        if (this.members.remove(c)) {
+            if (c instanceof Block) {
+                this.blocks.remove((Block) c);
+                this.grid.remove(c);
+            } else {
+                this.movingList.remove(c);
+            }
+        }
+    }
+
+    /**
+     * The method checks if the collidable object is in the game environment.
+     * @param c - collidable object
+     * @return true if it is in the environment, otherwise false
+     */
+    public boolean contains(Collidable c) {
+        return this.members.contains(c);
     }
 
     /**
      * The method returns the collidable list which contain the objects in the
-     * game.
-     * @return colliList
+     * game, the blocks first.
+     * @return a new list of the collidable objects
      */
     public ArrayList<Collidable> getColliList() {
-        return this.colliList;
+        ArrayList<Collidable> colliList = new ArrayList<Collidable>(this.blocks.getBlocks());
+        colliList.addAll(this.movingList);
+        return colliList;
+    }
+
+    /**
+     * The method returns the store of the blocks in the environment, where
+     * every block has an id for as long as the environment lives.
+     * @return blocks
+     */
+    public BlockStore getBlocks() {
+        return this.blocks;
     }
 
     /**
@@ -54,33 +105,113 @@ public class GameEnvironment {
     }
 
     /**
-     * The method returns the closest collision info to the line.
+     * The method returns the closest collision info to the line, with the
+     * face which was hit.
      * @param trajectory - the direction of the moving object
-     * @return closetInfo
+     * @return closetInfo, or null if there is no collision
      */
     public CollisionInfo getClosestCollision(Line trajectory) {
-        CollisionInfo closestInfo = null;
-        Point closest;
-        double dstClose, dsTemp;
-        List<CollisionInfo> collisions = new ArrayList<CollisionInfo>();
-        // Adding all collisions info with the trajectory into a list
-        for (Collidable block : this.colliList) {
-            if (!block.getCollisionRectangle().intersectionPoints(trajectory).isEmpty()) {
-                closest = trajectory.closestIntersectionToStartOfLine(block.getCollisionRectangle());
-                collisions.add(new CollisionInfo(closest, block));
+        CollisionInfo closestInfo = new CollisionInfo(new Point(0, 0), null);
+        if (this.getClosestCollision(trajectory.start().getX(), trajectory.start().getY(),
+                trajectory.end().getX(), trajectory.end().getY(), closestInfo)) {
+            return closestInfo;
+        }
+        return null;
+    }
+
+    /**
+     * The method finds the closest collision along the segment from
+     * (x1, y1) to (x2, y2) and writes it into the given info. It works on
+     * primitives only and does not allocate, so moving objects can call it on
+     * every step.
+     * @param x1 - the x coordinate where the moving object starts
+     * @param y1 - the y coordinate where the moving object starts
+     * @param x2 - the x coordinate where the moving object ends
+     * @param y2 - the y coordinate where the moving object ends
+     * @param result - the info to fill with the closest collision
+     * @return true if there is a collision, otherwise false
+     */
+    public boolean getClosestCollision(double x1, double y1, double x2, double y2, CollisionInfo result) {
+        return this.closestCollision(x1, y1, x2, y2, result, true, true);
+    }
+
+    /**
+     * The method is like getClosestCollision, but only checks the blocks,
+     * which never move.
+     * @param x1 - the x coordinate where the moving object starts
+     * @param y1 - the y coordinate where the moving object starts
+     * @param x2 - the x coordinate where the moving object ends
+     * @param y2 - the y coordinate where the moving object ends
+     * @param result - the info to fill with the closest collision
+     * @return true if there is a collision, otherwise false
+     */
+    public boolean getClosestBlockCollision(double x1, double y1, double x2, double y2, CollisionInfo result) {
+        return this.closestCollision(x1, y1, x2, y2, result, false, true);
+    }
+
+    /**
+     * The method is like getClosestCollision, but only checks the objects
+     * which may move, like the paddle.
+     * @param x1 - the x coordinate where the moving object starts
+     * @param y1 - the y coordinate where the moving object starts
+     * @param x2 - the x coordinate where the moving object ends
+     * @param y2 - the y coordinate where the moving object ends
+     * @param result - the info to fill with the closest collision
+     * @return true if there is a collision, otherwise false
+     */
+    public boolean getClosestMovingCollision(double x1, double y1, double x2, double y2, CollisionInfo result) {
+        return this.closestCollision(x1, y1, x2, y2, result, true, false);
+    }
+
+    /**
+     * The method finds the closest collision along the segment.
+     * @param x1 - the x coordinate where the moving object starts
+     * @param y1 - the y coordinate where the moving object starts
+     * @param x2 - the x coordinate where the moving object ends
+     * @param y2 - the y coordinate where the moving object ends
+     * @param result - the info to fill with the closest collision
+     * @param moving - true for checking the objects which may move
+     * @param blocks - true for checking the blocks
+     * @return true if there is a collision, otherwise false
+     */
+    private boolean closestCollision(double x1, double y1, double x2, double y2, CollisionInfo result,
+            boolean moving, boolean blocks) {
+        Collidable closestObject = null;
+        double tClose = Double.POSITIVE_INFINITY;
+        int closestFaces = 0;
+        int[] faces = result.entryFaces();
+        for (int i = 0; moving && i < this.movingList.size(); i++) {
+            Collidable c = this.movingList.get(i);
+            double t = c.getCollisionRectangle().entryParam(x1, y1, x2, y2, faces);
+            if (t >= 0 && t < tClose) {
+                tClose = t;
+                closestObject = c;
+                closestFaces = faces[0];
             }
         }
-        // Checking which is the closest collision
-        if (!collisions.isEmpty()) {
-            closestInfo = collisions.get(0);
-            dstClose = closestInfo.collisionPoint().distance(trajectory.start());
-            for (int i = 1; i < collisions.size(); i++) {
-                dsTemp = collisions.get(i).collisionPoint().distance(trajectory.start());
-                if (dsTemp < dstClose) {
-                    closestInfo = collisions.get(i);
+        CollisionGrid.Walker walker = WALKERS.get();
+        if (blocks) {
+            walker.begin(this.grid, x1, y1, x2, y2);
+        }
+        while (blocks && walker.next()) {
+            List<Collidable> cell = walker.cell();
+            for (int i = 0; i < cell.size(); i++) {
+                double t = cell.get(i).getCollisionRectangle().entryParam(x1, y1, x2, y2, faces);
+                if (t >= 0 && t < tClose) {
+                    tClose = t;
+                    closestObject = cell.get(i);
+                    closestFaces = faces[0];
                 }
             }
+            if (tClose <= walker.exitParam()) {
+                break;
+            }
+        }
+        walker.end();
+        if (closestObject == null) {
+            return false;
         }
-        return closestInfo;
+        result.update(x1 + (x2 - x1) * tClose, y1 + (y2 - y1) * tClose, closestObject, tClose, closestFaces);
+        return true;
     }
 }
\ No newline at end of file
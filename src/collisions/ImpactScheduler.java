@@ -0,0 +1,211 @@
+package collisions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import biuoop.DrawSurface;
+import geometryprimitives.Point;
+
+/**
+ * Moves balls by scheduling their impacts. A ball travels in a straight
+ * line between hits, so the time of its next impact with a block is computed
+ * once and kept in a priority queue. Until that time comes the ball only
+ * moves forward, and the blocks are not checked at all.
+ * An impact time can only become later when a block is removed, so such an
+ * entry is just checked again when its time comes. The paddle moves, so it
+ * is checked on every frame, against the short path of that frame only.
+ * @author Barak Talmor
+ */
+public class ImpactScheduler implements BallMover {
+    // How far ahead, in seconds of movement, an impact is looked for
+    private static final double HORIZON = 2;
+    private GameEnvironment environment;
+    private List<Track> tracks;
+    private PriorityQueue<Impact> impacts;
+    private CollisionInfo probe;
+    private double now;
+    private long impactCount;
+    // The tracks of the frame, kept between frames and grown when needed
+    private Track[] frame;
+
+    /**
+     * The constructor of the scheduler.
+     * @param environment - the game environment of the balls
+     */
+    public ImpactScheduler(GameEnvironment environment) {
+        this.environment = environment;
+        this.tracks = new ArrayList<Track>();
+        this.impacts = new PriorityQueue<Impact>();
+        this.probe = new CollisionInfo(new Point(0, 0), null);
+        this.now = 0;
+        this.impactCount = 0;
+        this.frame = new Track[0];
+    }
+
+    @Override
+    public void addBall(Ball b) {
+        Track track = new Track(b);
+        this.tracks.add(track);
+        this.schedule(track);
+    }
+
+    @Override
+    public boolean removeBall(Ball b) {
+        for (int i = 0; i < this.tracks.size(); i++) {
+            if (this.tracks.get(i).ball == b) {
+                // Queued impacts of the track are dropped when they come up
+                Track track = this.tracks.remove(i);
+                track.version++;
+                track.alive = false;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The method returns the number of impacts which were handled.
+     * @return impactCount
+     */
+    public long getImpactCount() {
+        return this.impactCount;
+    }
+
+    @Override
+    public void timePassed(double dt) {
+        double frameEnd = this.now + dt;
+        this.now = frameEnd;
+        // A margin of one more frame covers rounding in the predicted times
+        while (!this.impacts.isEmpty() && this.impacts.peek().time <= frameEnd + dt) {
+            Impact impact = this.impacts.poll();
+            if (impact.version == impact.track.version) {
+                impact.track.due = true;
+            }
+        }
+        // Handling a hit may remove balls, so the frame works on a copy
+        int count = this.tracks.size();
+        if (this.frame.length < count) {
+            this.frame = new Track[Math.max(count, this.frame.length * 2)];
+        }
+        for (int i = 0; i < count; i++) {
+            this.frame[i] = this.tracks.get(i);
+        }
+        for (int i = 0; i < count; i++) {
+            Track track = this.frame[i];
+            // Not keeping a removed ball alive after the frame
+            this.frame[i] = null;
+            Ball ball = track.ball;
+            if (track.due || this.pathMeetsMoving(ball, dt)) {
+                track.due = false;
+                ball.moveOneStep(dt);
+                this.impactCount++;
+                if (track.alive) {
+                    this.schedule(track);
+                }
+            } else {
+                Point c = ball.getCenter();
+                c.setX(c.getX() + ball.getVelocity().getDx() * dt);
+                c.setY(c.getY() + ball.getVelocity().getDy() * dt);
+            }
+        }
+    }
+
+    /**
+     * The method checks if the path of the ball in this frame meets an
+     * object which may move, like the paddle.
+     * @param ball - the ball
+     * @param dt - amount of seconds passed since the last frame
+     * @return true if the ball may hit a moving object, otherwise false
+     */
+    private boolean pathMeetsMoving(Ball ball, double dt) {
+        Velocity v = ball.getVelocity();
+        double speed = v.getSpeed();
+        if (speed == 0) {
+            return false;
+        }
+        double reach = speed * dt + ball.getSize();
+        double x = ball.getCenter().getX(), y = ball.getCenter().getY();
+        return this.environment.getClosestMovingCollision(x, y, x + v.getDx() / speed * reach,
+                y + v.getDy() / speed * reach, this.probe);
+    }
+
+    /**
+     * The method computes the next impact of the ball with a block, from
+     * the ball's place at the current time, and queues it. Older impacts of
+     * the ball become stale.
+     * @param track - the track of the ball
+     */
+    private void schedule(Track track) {
+        track.version++;
+        Ball ball = track.ball;
+        Velocity v = ball.getVelocity();
+        double speed = v.getSpeed();
+        if (speed == 0) {
+            return;
+        }
+        double reach = speed * HORIZON + ball.getSize();
+        double x = ball.getCenter().getX(), y = ball.getCenter().getY();
+        double time = this.now + HORIZON;
+        if (this.environment.getClosestBlockCollision(x, y, x + v.getDx() / speed * reach,
+                y + v.getDy() / speed * reach, this.probe)) {
+            double contact = this.probe.collisionPoint().distance(ball.getCenter()) - ball.getSize();
+            time = this.now + Math.max(0, contact) / speed;
+        }
+        this.impacts.add(new Impact(time, track));
+    }
+
+    @Override
+    public void drawOn(DrawSurface d) {
+        for (int i = 0; i < this.tracks.size(); i++) {
+            this.tracks.get(i).ball.drawOn(d);
+        }
+    }
+
+    /**
+     * The scheduling state of one ball.
+     */
+    private static class Track {
+        private Ball ball;
+        private int version;
+        private boolean due;
+        private boolean alive;
+
+        /**
+         * The constructor of the track.
+         * @param ball - the ball
+         */
+        Track(Ball ball) {
+            this.ball = ball;
+            this.version = 0;
+            this.due = false;
+            this.alive = true;
+        }
+    }
+
+    /**
+     * A predicted impact of a ball, valid while the ball keeps the version
+     * it had when the impact was computed.
+     */
+    private static class Impact implements Comparable<Impact> {
+        private double time;
+        private Track track;
+        private int version;
+
+        /**
+         * The constructor of the impact.
+         * @param time - the time of the impact
+         * @param track - the track of the ball
+         */
+        Impact(double time, Track track) {
+            this.time = time;
+            this.track = track;
+            this.version = track.version;
+        }
+
+        @Override
+        public int compareTo(Impact other) {
+            return Double.compare(this.time, other.time);
+        }
+    }
+}
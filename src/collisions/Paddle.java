@@ -28,12 +28,32 @@ public class Paddle implements Sprite, Collidable {
      * @param speedPaddle - the move speed for the paddle
      */
     public Paddle(Rectangle rect, Color color, GUI gui, int speedPaddle) {
+        this(rect, color, gui.getKeyboardSensor(), speedPaddle);
+    }
+
+    /**
+     * Constructor of paddle which is controlled by any keyboard sensor, so it
+     * can also run without a gui.
+     * @param rect - the rectangle of the paddle
+     * @param color - the color of the paddle
+     * @param keyboard - the keyboard sensor which moves the paddle
+     * @param speedPaddle - the move speed for the paddle
+     */
+    public Paddle(Rectangle rect, Color color, KeyboardSensor keyboard, int speedPaddle) {
         this.rect = rect;
         this.color = color;
-        this.keyboard = gui.getKeyboardSensor();
+        this.keyboard = keyboard;
         this.speedPaddle = speedPaddle;
     }
 
+    /**
+     * The method returns the color of the paddle.
+     * @return color
+     */
+    public Color getColor() {
+        return this.color;
+    }
+
     /**
      * The method move the paddle to the right.
      * @param dt - amount of seconds passed since the last frame
@@ -41,14 +61,12 @@ public class Paddle implements Sprite, Collidable {
     public void moveRight(double dt) {
         int speed = (int) (this.speedPaddle * dt);
         if (this.keyboard.isPressed(KeyboardSensor.RIGHT_KEY)
-                && (this.rect.getLowerRight().getX() < 775 - speed)) {
-            this.rect = new Rectangle(this.rect.getUpperLeft().getX() + speed,
-                    this.rect.getUpperLeft().getY(), this.rect.getWidth(), this.rect.getHeight());
+                && (this.rect.getX() + this.rect.getWidth() < 775 - speed)) {
+            this.rect.moveTo(this.rect.getX() + speed, this.rect.getY());
         }
         if (this.keyboard.isPressed(KeyboardSensor.RIGHT_KEY)
-                && this.rect.getLowerRight().getX() >= 775 - speed) {
-            this.rect = new Rectangle(775 - this.rect.getWidth(), this.rect.getUpperLeft().getY(), this.rect.getWidth(),
-                    this.rect.getHeight());
+                && this.rect.getX() + this.rect.getWidth() >= 775 - speed) {
+            this.rect.moveTo(775 - this.rect.getWidth(), this.rect.getY());
         }
     }
 
@@ -59,16 +77,23 @@ public class Paddle implements Sprite, Collidable {
     public void moveLeft(double dt) {
         int speed = (int) (this.speedPaddle * dt);
         if (this.keyboard.isPressed(KeyboardSensor.LEFT_KEY)
-                && this.rect.getUpperLeft().getX() > speed + 25) {
-            this.rect = new Rectangle(this.rect.getUpperLeft().getX() - speed,
-                    this.rect.getUpperLeft().getY(), this.rect.getWidth(), this.rect.getHeight());
+                && this.rect.getX() > speed + 25) {
+            this.rect.moveTo(this.rect.getX() - speed, this.rect.getY());
         }
         if (this.keyboard.isPressed(KeyboardSensor.LEFT_KEY)
-                && this.rect.getUpperLeft().getX() <= speed + 25) {
-            this.rect = new Rectangle(25, this.rect.getUpperLeft().getY(), this.rect.getWidth(), this.rect.getHeight());
+                && this.rect.getX() <= speed + 25) {
+            this.rect.moveTo(25, this.rect.getY());
         }
     }
 
+    /**
+     * The method puts the paddle at the given x, its height stays the same.
+     * @param x - the x of the left side of the paddle
+     */
+    public void moveTo(double x) {
+        this.rect.moveTo(x, this.rect.getY());
+    }
+
     /**
      * The method return the rectangle of the paddle.
      * @return rectangle
@@ -92,29 +117,29 @@ public class Paddle implements Sprite, Collidable {
      */
     public void drawOn(DrawSurface d) {
         d.setColor(this.color);
-        d.fillRectangle((int) this.rect.getUpperLeft().getX(), (int) this.rect.getUpperLeft().getY(),
+        d.fillRectangle((int) this.rect.getX(), (int) this.rect.getY(),
                 (int) this.rect.getWidth(), (int) this.rect.getHeight());
         // Draws the frame of the paddle
         d.setColor(Color.BLACK);
-        d.drawRectangle((int) this.rect.getUpperLeft().getX(), (int) this.rect.getUpperLeft().getY(),
+        d.drawRectangle((int) this.rect.getX(), (int) this.rect.getY(),
                 (int) this.rect.getWidth(), (int) this.rect.getHeight());
     }
 
     /**
-     * the method return new velocity to the object, depends where was the hit.
+     * the method return new velocity to the object, depends on the face which
+     * was hit.
      * @param hitter - the ball that hits
-     * @param collisionPoint - the location where was the hit
+     * @param collision - the collision, with its point and face
      * @param currentVelocity - velocity of the object
      * @return velocity - new velocity
      */
-    public Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity) {
-        if (collisionPoint.isPointOnLine(this.rect.getUpperLine())) {
-            return hitOnUpperLine(collisionPoint, currentVelocity);
-        } else if (collisionPoint.isPointOnLine(this.rect.getLowerLine())) {
+    public Velocity hit(Ball hitter, CollisionInfo collision, Velocity currentVelocity) {
+        if ((collision.face() & Rectangle.UPPER) != 0) {
+            return hitOnUpperLine(collision.collisionPoint(), currentVelocity);
+        } else if ((collision.face() & Rectangle.LOWER) != 0) {
             return new Velocity(currentVelocity.getDx(), -currentVelocity.getDy());
         }
-        if (collisionPoint.isPointOnLine(this.rect.getRightLine())
-                || collisionPoint.isPointOnLine(this.rect.getLeftLine())) {
+        if ((collision.face() & (Rectangle.RIGHT | Rectangle.LEFT)) != 0) {
             return new Velocity(-currentVelocity.getDx(), currentVelocity.getDy());
         }
         return currentVelocity;
@@ -129,15 +154,17 @@ public class Paddle implements Sprite, Collidable {
      * @return velocity - new one with another angle
      */
     public Velocity hitOnUpperLine(Point collisionPoint, Velocity currentVelocity) {
-        Point leftCorner = this.rect.getUpperLeft();
-        int paddleLength = (int) this.rect.getUpperLeft().distance(this.rect.getUppeRight());
-        if (collisionPoint.distance(leftCorner) < paddleLength * ((1) / 5.0)) {
+        // The point is on the upper line, so its distance from the left corner
+        // is its distance along the line
+        double fromLeft = Math.abs(collisionPoint.getX() - this.rect.getX());
+        int paddleLength = (int) this.rect.getWidth();
+        if (fromLeft < paddleLength * ((1) / 5.0)) {
             return Velocity.fromAngleAndSpeed(300, currentVelocity.getSpeed());
-        } else if (collisionPoint.distance(leftCorner) < paddleLength * ((2) / 5.0)) {
+        } else if (fromLeft < paddleLength * ((2) / 5.0)) {
             return Velocity.fromAngleAndSpeed(330, currentVelocity.getSpeed());
-        } else if (collisionPoint.distance(leftCorner) < paddleLength * ((3) / 5.0)) {
+        } else if (fromLeft < paddleLength * ((3) / 5.0)) {
             return new Velocity(currentVelocity.getDx(), -currentVelocity.getDy());
-        } else if (collisionPoint.distance(leftCorner) < paddleLength * ((4) / 5.0)) {
+        } else if (fromLeft < paddleLength * ((4) / 5.0)) {
             return Velocity.fromAngleAndSpeed(30, currentVelocity.getSpeed());
         } else {
             return Velocity.fromAngleAndSpeed(60, currentVelocity.getSpeed());
@@ -0,0 +1,123 @@
+package collisions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import biuoop.DrawSurface;
+
+/**
+ * Moves a group of balls on a fork-join pool. Every frame the balls look for
+ * their collisions in parallel against the unchanged game environment, and
+ * then the collisions are resolved one ball after another in the order the
+ * balls were added, so block hits, removals and counters change exactly the
+ * same way on every run.
+ * @author Barak Talmor
+ */
+public class ParallelBallStepper implements BallMover {
+    // Below this number of balls splitting the work costs more than it saves
+    private static final int THRESHOLD = 8;
+    private List<Ball> balls;
+    private Ball[] frameBalls;
+    private ForkJoinPool pool;
+
+    /**
+     * The constructor of the stepper, using the common fork-join pool.
+     */
+    public ParallelBallStepper() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * The constructor of the stepper.
+     * @param pool - the pool which looks for the collisions
+     */
+    public ParallelBallStepper(ForkJoinPool pool) {
+        this.balls = new ArrayList<Ball>();
+        this.frameBalls = new Ball[0];
+        this.pool = pool;
+    }
+
+    @Override
+    public void addBall(Ball b) {
+        this.balls.add(b);
+    }
+
+    @Override
+    public boolean removeBall(Ball b) {
+        return this.balls.remove(b);
+    }
+
+    /**
+     * The method returns the number of balls in the stepper.
+     * @return size
+     */
+    public int size() {
+        return this.balls.size();
+    }
+
+    @Override
+    public void timePassed(double dt) {
+        int n = this.balls.size();
+        if (this.frameBalls.length < n) {
+            this.frameBalls = new Ball[n * 2];
+        }
+        // Resolving may remove balls, so the frame works on a copy
+        Ball[] frame = this.balls.toArray(this.frameBalls);
+        if (n <= THRESHOLD) {
+            new FindCollisions(frame, 0, n, dt).compute();
+        } else {
+            this.pool.invoke(new FindCollisions(frame, 0, n, dt));
+        }
+        for (int i = 0; i < n; i++) {
+            frame[i].resolveCollision();
+            frame[i] = null;
+        }
+    }
+
+    @Override
+    public void drawOn(DrawSurface d) {
+        for (int i = 0; i < this.balls.size(); i++) {
+            this.balls.get(i).drawOn(d);
+        }
+    }
+
+    /**
+     * The fork-join task which looks for the collisions of a range of balls.
+     */
+    private static class FindCollisions extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private Ball[] balls;
+        private int from;
+        private int to;
+        private double dt;
+
+        /**
+         * The constructor of the task.
+         * @param balls - the balls of the frame
+         * @param from - the first ball of the range
+         * @param to - the end of the range, exclusive
+         * @param dt - amount of seconds passed since the last frame
+         */
+        FindCollisions(Ball[] balls, int from, int to, double dt) {
+            this.balls = balls;
+            this.from = from;
+            this.to = to;
+            this.dt = dt;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= THRESHOLD) {
+                for (int i = this.from; i < this.to; i++) {
+                    this.balls[i].findCollision(this.dt);
+                }
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new FindCollisions(this.balls, this.from, middle, this.dt),
+                    new FindCollisions(this.balls, middle, this.to, this.dt));
+        }
+    }
+}
@@ -8,13 +8,21 @@ import java.util.List;
  */
 
 public class Rectangle {
-    private Point upperLeft;
-    private Point lowerRight;
-    private Point upperRight;
-    private Point lowerLeft;
+    // The faces of the rectangle, as bits, so a hit on a corner has two
+    public static final int UPPER = 1;
+    public static final int LOWER = 2;
+    public static final int LEFT = 4;
+    public static final int RIGHT = 8;
+    // How close the parameters of the two slabs must be for a corner hit
+    private static final double FACE_EPSILON = 0.000000001;
+    // How far outside [0, 1] a parameter may be and still count as a hit
+    private static final double EPSILON = 0.00000001;
+    private double x;
+    private double y;
     private double width;
     private double height;
-    // Rectangle lines
+    // Rectangle lines, built on first use since most rectangles are only
+    // tested through their coordinates
     private Line upper;
     private Line lower;
     private Line right;
@@ -27,17 +35,7 @@ public class Rectangle {
      * @param height - the height of the rectangle
      */
     public Rectangle(Point upperLeft, double width, double height) {
-        this.upperLeft = upperLeft;
-        this.lowerLeft = new Point(upperLeft.getX(), upperLeft.getY() + height);
-        this.lowerRight = new Point(upperLeft.getX() + width, upperLeft.getY() + height);
-        this.upperRight = new Point(upperLeft.getX() + width, upperLeft.getY());
-        this.width = width;
-        this.height = height;
-        // Constructor for the lines of the rectangles
-        this.left = new Line(this.upperLeft, this.lowerLeft);
-        this.upper = new Line(this.upperLeft, this.upperRight);
-        this.right = new Line(this.upperRight, this.lowerRight);
-        this.lower = new Line(this.lowerLeft, this.lowerRight);
+        this(upperLeft.getX(), upperLeft.getY(), width, height);
     }
 
     /**
@@ -48,17 +46,28 @@ public class Rectangle {
      * @param height - the height of the rectangle
      */
     public Rectangle(double upperLeftX, double upperLeftY, double width, double height) {
-        this.upperLeft = new Point(upperLeftX, upperLeftY);
-        this.lowerLeft = new Point(upperLeft.getX(), upperLeft.getY() + height);
-        this.lowerRight = new Point(upperLeft.getX() + width, upperLeft.getY() + height);
-        this.upperRight = new Point(upperLeft.getX() + width, upperLeft.getY());
+        this.x = upperLeftX;
+        this.y = upperLeftY;
         this.width = width;
         this.height = height;
-        // Constructor for the lines of the rectangles
-        this.left = new Line(this.upperLeft, this.lowerLeft);
-        this.upper = new Line(this.upperLeft, this.upperRight);
-        this.right = new Line(this.upperRight, this.lowerRight);
-        this.lower = new Line(this.lowerLeft, this.lowerRight);
+    }
+
+    /**
+     * The method moves the rectangle so its upper-left point is at the given
+     * location, its size stays the same.
+     * @param upperLeftX - the new x coordinate of the upper-left point
+     * @param upperLeftY - the new y coordinate of the upper-left point
+     */
+    public void moveTo(double upperLeftX, double upperLeftY) {
+        if (upperLeftX == this.x && upperLeftY == this.y) {
+            return;
+        }
+        this.x = upperLeftX;
+        this.y = upperLeftY;
+        this.upper = null;
+        this.lower = null;
+        this.right = null;
+        this.left = null;
     }
 
     /**
@@ -68,7 +77,7 @@ public class Rectangle {
      */
     public List<Point> intersectionPoints(Line line) {
         List<Point> interPoints = new ArrayList<Point>();
-        Line[] rectLines = {this.upper, this.lower, this.right, this.left};
+        Line[] rectLines = {this.getUpperLine(), this.getLowerLine(), this.getRightLine(), this.getLeftLine()};
         int count = 0;
         for (int i = 0; i < rectLines.length; i++) {
             if (line.isIntersecting(rectLines[i]) && count < 2) {
@@ -84,6 +93,107 @@ public class Rectangle {
         }
     }
 
+    /**
+     * Return the parameter of the first point where the segment
+     * (x1, y1)-(x2, y2) crosses the border of the rectangle, by clipping the
+     * segment between the two pairs of parallel edges (the slab test). A
+     * segment whose bounding box misses the rectangle is rejected before any
+     * division. A segment which starts inside the rectangle crosses the
+     * border where it leaves it.
+     * @param x1 - the x coordinate of the start of the segment
+     * @param y1 - the y coordinate of the start of the segment
+     * @param x2 - the x coordinate of the end of the segment
+     * @param y2 - the y coordinate of the end of the segment
+     * @return the parameter in [0, 1] along the segment, or -1 if there is no
+     *         intersection
+     */
+    public double entryParam(double x1, double y1, double x2, double y2) {
+        return this.entryParam(x1, y1, x2, y2, null);
+    }
+
+    /**
+     * Return the parameter of the first point where the segment
+     * (x1, y1)-(x2, y2) crosses the border of the rectangle, like
+     * entryParam, and the faces it crosses there. The faces are the edges
+     * of the slabs which are crossed at that parameter, so a hit always has
+     * one, and a corner hit has the faces of both slabs.
+     * @param x1 - the x coordinate of the start of the segment
+     * @param y1 - the y coordinate of the start of the segment
+     * @param x2 - the x coordinate of the end of the segment
+     * @param y2 - the y coordinate of the end of the segment
+     * @param faces - the first element gets the UPPER, LOWER, LEFT and RIGHT
+     *        bits of the faces when there is an intersection, may be null
+     * @return the parameter in [0, 1] along the segment, or -1 if there is no
+     *         intersection
+     */
+    public double entryParam(double x1, double y1, double x2, double y2, int[] faces) {
+        double left = this.x, top = this.y;
+        double right = left + this.width, bottom = top + this.height;
+        if ((x1 < left && x2 < left) || (x1 > right && x2 > right)
+                || (y1 < top && y2 < top) || (y1 > bottom && y2 > bottom)) {
+            return -1;
+        }
+        double dx = x2 - x1, dy = y2 - y1;
+        // The parameters where the segment enters and leaves each slab, and
+        // the faces it crosses there
+        double enterX = Double.NEGATIVE_INFINITY, exitX = Double.POSITIVE_INFINITY;
+        double enterY = Double.NEGATIVE_INFINITY, exitY = Double.POSITIVE_INFINITY;
+        int enterXFace = 0, exitXFace = 0, enterYFace = 0, exitYFace = 0;
+        // A segment parallel to a pair of edges is between them, since the
+        // bounding box check passed, so only the other pair clips it
+        if (dx != 0) {
+            double tLeft = (left - x1) / dx, tRight = (right - x1) / dx;
+            enterX = Math.min(tLeft, tRight);
+            exitX = Math.max(tLeft, tRight);
+            enterXFace = dx > 0 ? LEFT : RIGHT;
+            exitXFace = dx > 0 ? RIGHT : LEFT;
+        }
+        if (dy != 0) {
+            double tTop = (top - y1) / dy, tBottom = (bottom - y1) / dy;
+            enterY = Math.min(tTop, tBottom);
+            exitY = Math.max(tTop, tBottom);
+            enterYFace = dy > 0 ? UPPER : LOWER;
+            exitYFace = dy > 0 ? LOWER : UPPER;
+        }
+        double enter = Math.max(enterX, enterY), exit = Math.min(exitX, exitY);
+        if (enter > exit + EPSILON) {
+            return -1;
+        }
+        // A segment which starts inside the rectangle crosses the border
+        // where it leaves it
+        double t = enter >= -EPSILON ? enter : exit;
+        if (t > 1 + EPSILON || t < -EPSILON) {
+            return -1;
+        }
+        if (faces != null) {
+            // A segment which grazes a corner crosses one slab where it
+            // leaves the other
+            int crossed = 0;
+            crossed |= Math.abs(enterX - t) <= FACE_EPSILON ? enterXFace : 0;
+            crossed |= Math.abs(exitX - t) <= FACE_EPSILON ? exitXFace : 0;
+            crossed |= Math.abs(enterY - t) <= FACE_EPSILON ? enterYFace : 0;
+            crossed |= Math.abs(exitY - t) <= FACE_EPSILON ? exitYFace : 0;
+            faces[0] = crossed;
+        }
+        return Math.max(0, Math.min(1, t));
+    }
+
+    /**
+     * Return the x coordinate of the left side of the rectangle.
+     * @return this.x
+     */
+    public double getX() {
+        return this.x;
+    }
+
+    /**
+     * Return the y coordinate of the upper side of the rectangle.
+     * @return this.y
+     */
+    public double getY() {
+        return this.y;
+    }
+
     /**
      * Return the width of the rectangle.
      * @return this.width
@@ -101,35 +211,36 @@ public class Rectangle {
     }
 
     /**
-     * Returns the upper-left point of the rectangle.
-     * @return this.upperLeft
+     * Returns the upper-left point of the rectangle. The point is a new copy,
+     * the rectangle is moved with moveTo.
+     * @return the upper-left point
      */
     public Point getUpperLeft() {
-        return this.upperLeft;
+        return new Point(this.x, this.y);
     }
 
     /**
-     * Returns the lower-right point of the rectangle.
-     * @return this.lowerRight
+     * Returns the lower-right point of the rectangle, as a new copy.
+     * @return the lower-right point
      */
     public Point getLowerRight() {
-        return this.lowerRight;
+        return new Point(this.x + this.width, this.y + this.height);
     }
 
     /**
-     * Returns the lower-left point of the rectangle.
-     * @return this.lowerRight
+     * Returns the lower-left point of the rectangle, as a new copy.
+     * @return the lower-left point
      */
     public Point getLowerLeft() {
-        return this.lowerLeft;
+        return new Point(this.x, this.y + this.height);
     }
 
     /**
-     * Returns the upper-right point of the rectangle.
-     * @return this.upperRight
+     * Returns the upper-right point of the rectangle, as a new copy.
+     * @return the upper-right point
      */
     public Point getUppeRight() {
-        return this.upperRight;
+        return new Point(this.x + this.width, this.y);
     }
 
     /**
@@ -137,6 +248,9 @@ public class Rectangle {
      * @return this.upper
      */
     public Line getUpperLine() {
+        if (this.upper == null) {
+            this.upper = new Line(this.x, this.y, this.x + this.width, this.y);
+        }
         return this.upper;
     }
 
@@ -145,6 +259,9 @@ public class Rectangle {
      * @return this.lower
      */
     public Line getLowerLine() {
+        if (this.lower == null) {
+            this.lower = new Line(this.x, this.y + this.height, this.x + this.width, this.y + this.height);
+        }
         return this.lower;
     }
 
@@ -153,14 +270,20 @@ public class Rectangle {
      * @return this.left
      */
     public Line getLeftLine() {
+        if (this.left == null) {
+            this.left = new Line(this.x, this.y, this.x, this.y + this.height);
+        }
         return this.left;
     }
 
     /**
      * Returns the right line of the rectangle.
-     * @return this.lowerRight
+     * @return this.right
      */
     public Line getRightLine() {
+        if (this.right == null) {
+            this.right = new Line(this.x + this.width, this.y, this.x + this.width, this.y + this.height);
+        }
         return this.right;
     }
 }
\ No newline at end of file
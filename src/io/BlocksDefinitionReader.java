@@ -1,13 +1,10 @@
 package io;
 
 import java.awt.Color;
-import java.awt.Image;
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.Map;
 import java.util.TreeMap;
-import javax.imageio.ImageIO;
 
 import animations.Fill;
 
@@ -35,29 +32,27 @@ public class BlocksDefinitionReader {
                     continue;
                 }
                 if (line.startsWith("default")) {
-                    String[] split = line.split(" ");
+                    String[] split = tokens(line);
                     for (int i = 1; i < split.length; i++) {
-                        String[] secondSplit = split[i].split(":");
-                        if (secondSplit[0].startsWith("fill")) {
-                            fillsDef.put(secondSplit[0], secondSplit[1]);
+                        String key = keyOf(split[i]);
+                        if (key.startsWith("fill")) {
+                            fillsDef.put(key, valueOf(split[i]));
                         } else {
-                            defaultDef.put(secondSplit[0], secondSplit[1]);
+                            defaultDef.put(key, valueOf(split[i]));
                         }
                     }
-                }
-                if (line.startsWith("bdef")) {
-                    String[] split = line.split(" ");
-                    if (split[1].split(":")[0].equals("symbol")) {
+                } else if (line.startsWith("bdef")) {
+                    String[] split = tokens(line);
+                    if (split.length > 1 && keyOf(split[1]).equals("symbol")) {
                         BlockCreator b = buildsBlock(split, defaultDef, fillsDef);
                         if (b != null) {
-                            blocks.put(split[1].split(":")[1], b);
+                            blocks.put(valueOf(split[1]), b);
                         }
                     }
-                }
-                if (line.startsWith("sdef")) {
-                    String[] split = line.split(" ");
-                    String symbol = split[1].split(":")[1];
-                    int width = Integer.parseInt(split[2].split(":")[1]);
+                } else if (line.startsWith("sdef")) {
+                    String[] split = tokens(line);
+                    String symbol = valueOf(split[1]);
+                    int width = Integer.parseInt(valueOf(split[2]));
                     spacersDef.put(symbol, width);
                 }
             }
@@ -67,6 +62,57 @@ public class BlocksDefinitionReader {
         return new BlocksFromSymbolsFactory(blocks, spacersDef);
     }
 
+    /**
+     * The method splits the line to its words, which are separated by
+     * spaces.
+     * @param line - the line
+     * @return the words of the line
+     */
+    public static String[] tokens(String line) {
+        int count = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) != ' ' && (i == 0 || line.charAt(i - 1) == ' ')) {
+                count++;
+            }
+        }
+        String[] words = new String[count];
+        int word = 0, start = -1;
+        for (int i = 0; i <= line.length(); i++) {
+            boolean space = i == line.length() || line.charAt(i) == ' ';
+            if (space && start >= 0) {
+                words[word++] = line.substring(start, i);
+                start = -1;
+            } else if (!space && start < 0) {
+                start = i;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * The method returns the key of a key:value word.
+     * @param word - the word
+     * @return the part before the first colon, or the whole word
+     */
+    public static String keyOf(String word) {
+        int colon = word.indexOf(':');
+        return colon < 0 ? word : word.substring(0, colon);
+    }
+
+    /**
+     * The method returns the value of a key:value word.
+     * @param word - the word
+     * @return the part after the first colon up to the next one, or null
+     */
+    public static String valueOf(String word) {
+        int colon = word.indexOf(':');
+        if (colon < 0) {
+            return null;
+        }
+        int end = word.indexOf(':', colon + 1);
+        return word.substring(colon + 1, end < 0 ? word.length() : end);
+    }
+
     /**
      * The method builds the block creator Map.
      * @param split - string of bdef that was split
@@ -77,34 +123,35 @@ public class BlocksDefinitionReader {
     public static BlockCreator buildsBlock(String[] split, Map<String, String> defaultDef,
             Map<String, String> fillsDef) {
         BlockFactory block = new BlockFactory();
-        int hitPoints = -1;
-        boolean height = false, width = false, stroke = false, fill = false;
+        int hitPoints = -1, height = -1, width = -1;
+        boolean stroke = false, fill = false;
         Map<String, String> fills = new TreeMap<>();
         for (int i = 2; i < split.length; i++) {
-            String[] secondSplit = split[i].split(":");
-            if (secondSplit[0].equals("hit_points")) {
-                block.setHitPoints(Integer.parseInt(secondSplit[1]));
-                hitPoints = Integer.parseInt(secondSplit[1]);
+            String key = keyOf(split[i]);
+            String value = valueOf(split[i]);
+            if (key.equals("hit_points")) {
+                hitPoints = Integer.parseInt(value);
+                block.setHitPoints(hitPoints);
                 continue;
             }
-            if (secondSplit[0].equals("height")) {
-                block.setHeight(Integer.parseInt(secondSplit[1]));
-                height = true;
+            if (key.equals("height")) {
+                height = Integer.parseInt(value);
+                block.setHeight(height);
                 continue;
             }
-            if (secondSplit[0].equals("width")) {
-                block.setWidth(Integer.parseInt(secondSplit[1]));
-                width = true;
+            if (key.equals("width")) {
+                width = Integer.parseInt(value);
+                block.setWidth(width);
                 continue;
             }
-            if (secondSplit[0].equals("stroke")) {
+            if (key.equals("stroke")) {
                 ColorsParser pcolor = new ColorsParser();
-                block.setStroke(pcolor.colorFromString(secondSplit[1]));
+                block.setStroke(pcolor.colorFromString(value));
                 stroke = true;
                 continue;
             }
-            if (secondSplit[0].startsWith("fill")) {
-                fills.put(secondSplit[0], secondSplit[1]);
+            if (key.startsWith("fill")) {
+                fills.put(key, value);
                 fill = true;
                 continue;
             }
@@ -116,20 +163,22 @@ public class BlocksDefinitionReader {
                 block.setHitPoints(Integer.parseInt(defaultDef.get("hit_points")));
                 hitPoints = Integer.parseInt(defaultDef.get("hit_points"));
             }
-            if (!height) {
-                block.setHeight(Integer.parseInt(defaultDef.get("height")));
+            if (height == -1) {
+                height = Integer.parseInt(defaultDef.get("height"));
+                block.setHeight(height);
             }
-            if (!width) {
-                block.setWidth(Integer.parseInt(defaultDef.get("width")));
+            if (width == -1) {
+                width = Integer.parseInt(defaultDef.get("width"));
+                block.setWidth(width);
             }
             if (!stroke) {
                 block.setStroke(new ColorsParser().colorFromString(defaultDef.get("stroke")));
             }
             if (!fill) {
-                f = createFill(fillsDef, hitPoints);
+                f = createFill(fillsDef, hitPoints, width, height);
             } else {
                 Map<String, String> newFill = unionMaps(fillsDef, fills);
-                f = createFill(newFill, hitPoints);
+                f = createFill(newFill, hitPoints, width, height);
             }
         } catch (Exception e) {
             return null;
@@ -149,6 +198,19 @@ public class BlocksDefinitionReader {
      * @return Fill
      */
     public static Fill createFill(Map<String, String> fills, int hitPoints) {
+        return createFill(fills, hitPoints, 0, 0);
+    }
+
+    /**
+     * The method return valid fill object for blocks of the given size, its
+     * images are scaled to the size of the block.
+     * @param fills - map
+     * @param hitPoints - number of hitpoints
+     * @param width - the width of the blocks
+     * @param height - the height of the blocks
+     * @return Fill
+     */
+    public static Fill createFill(Map<String, String> fills, int hitPoints, int width, int height) {
         String[] fillArray = new String[hitPoints + 1];
         String defaultColor = "color(RGB(154,157,84))";
         if (fills.containsKey("fill")) {
@@ -171,7 +233,7 @@ public class BlocksDefinitionReader {
                 fillArray[i] = defaultColor;
             }
         }
-        Fill f = new Fill(fillArray);
+        Fill f = new Fill(fillArray, width, height);
         return f;
     }
 
@@ -181,26 +243,13 @@ public class BlocksDefinitionReader {
      * @return boolean
      */
     public static boolean checksValidFill(String s) {
-        try {
-            if (s.startsWith("image(")) {
-                // Checking that we can open it.
-                String path = s.substring(6, s.length() - 1);
-                InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path);
-                Image img = ImageIO.read(is);
-                if (img == null) {
-                    return false;
-                }
-            } else {
-                ColorsParser cp = new ColorsParser();
-                Color c = cp.colorFromString(s);
-                if (c == null) {
-                    return false;
-                }
-            }
-        } catch (IOException e) {
-            return false;
+        if (s.startsWith("image(")) {
+            // Checking that we can open it, the fill takes it from the cache
+            return ImageCache.fromString(s) != null;
         }
-        return true;
+        ColorsParser cp = new ColorsParser();
+        Color c = cp.colorFromString(s);
+        return c != null;
     }
 
     /**
@@ -0,0 +1,275 @@
+package io;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+/**
+ * The cache of the decoded images of the game, shared by the whole process
+ * and keyed by the path of the image on the class path, so every image is
+ * decoded once. Images may also be asked for at a given size, then they are
+ * scaled once and converted to the pixel format of the screen, so drawing
+ * them is a plain copy.
+ * The images which were used last are kept while their size fits in the
+ * budget (the arkanoid.imageCacheBytes property, 64MB by default). Older
+ * images are only softly kept, so the garbage collector may drop them when
+ * memory is short, and they are decoded again if they are needed later.
+ * @author Barak Talmor
+ */
+public class ImageCache {
+    public static final long DEFAULT_BUDGET = 64L * 1024 * 1024;
+    private static final ImageCache INSTANCE = new ImageCache(
+            Long.getLong("arkanoid.imageCacheBytes", DEFAULT_BUDGET));
+    private long budget;
+    private long bytes;
+    private LinkedHashMap<String, Image> recent;
+    private Map<String, SoftReference<Image>> evicted;
+    private Map<String, Boolean> missing;
+    private long decodes;
+
+    /**
+     * The constructor of the cache.
+     * @param budget - the number of bytes of the images which are kept
+     */
+    public ImageCache(long budget) {
+        this.budget = budget;
+        this.bytes = 0;
+        this.recent = new LinkedHashMap<String, Image>(16, 0.75f, true);
+        this.evicted = new HashMap<String, SoftReference<Image>>();
+        this.missing = new HashMap<String, Boolean>();
+        this.decodes = 0;
+    }
+
+    /**
+     * The method returns the cache of the process.
+     * @return the cache
+     */
+    public static ImageCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * The method returns the image of the path, from the cache of the
+     * process.
+     * @param path - the path of the image on the class path
+     * @return the image, or null if it can not be read
+     */
+    public static Image get(String path) {
+        return INSTANCE.getImage(path);
+    }
+
+    /**
+     * The method returns the image of an image(path) fill or background.
+     * @param s - image(path)
+     * @return the image, or null if it can not be read
+     */
+    public static Image fromString(String s) {
+        return get(s.substring(6, s.length() - 1));
+    }
+
+    /**
+     * The method returns the image of an image(path) fill or background,
+     * scaled to the given size in the pixel format of the screen.
+     * @param s - image(path)
+     * @param width - the width of the image
+     * @param height - the height of the image
+     * @return the image, or null if it can not be read
+     */
+    public static Image fromString(String s, int width, int height) {
+        return INSTANCE.getImage(s.substring(6, s.length() - 1), width, height);
+    }
+
+    /**
+     * The method returns the image of the path scaled to the given size, in
+     * the pixel format of the screen. It is made only if the cache does not
+     * hold it.
+     * @param path - the path of the image on the class path
+     * @param width - the width of the image
+     * @param height - the height of the image
+     * @return the image, or null if it can not be read
+     */
+    public synchronized Image getImage(String path, int width, int height) {
+        String key = path + "#" + width + "x" + height;
+        Image image = this.recent.get(key);
+        if (image != null) {
+            return image;
+        }
+        SoftReference<Image> ref = this.evicted.remove(key);
+        image = ref == null ? null : ref.get();
+        if (image == null) {
+            Image source = this.getImage(path);
+            if (source == null || width <= 0 || height <= 0) {
+                return source;
+            }
+            image = convert(source, width, height);
+        }
+        this.recent.put(key, image);
+        this.bytes += sizeOf(image);
+        this.evict();
+        return image;
+    }
+
+    /**
+     * The method returns a new image in the pixel format of the screen, or
+     * a plain image of ints when there is no screen.
+     * @param width - the width of the image
+     * @param height - the height of the image
+     * @param transparency - one of the constants of Transparency
+     * @return the image
+     */
+    public static BufferedImage compatibleImage(int width, int height, int transparency) {
+        if (GraphicsEnvironment.isHeadless()) {
+            int type = transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB
+                    : BufferedImage.TYPE_INT_ARGB;
+            return new BufferedImage(width, height, type);
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration().createCompatibleImage(width, height, transparency);
+    }
+
+    /**
+     * The method draws the image, scaled to the given size, on a new image
+     * in the pixel format of the screen.
+     * @param source - the image
+     * @param width - the width of the new image
+     * @param height - the height of the new image
+     * @return the new image
+     */
+    private static BufferedImage convert(Image source, int width, int height) {
+        int transparency = source instanceof BufferedImage ? ((BufferedImage) source).getTransparency()
+                : Transparency.TRANSLUCENT;
+        BufferedImage image = compatibleImage(width, height, transparency);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(source, 0, 0, width, height, null);
+        g.dispose();
+        return image;
+    }
+
+    /**
+     * The method returns the image of the path, it is decoded only if the
+     * cache does not hold it.
+     * @param path - the path of the image on the class path
+     * @return the image, or null if it can not be read
+     */
+    public synchronized Image getImage(String path) {
+        Image image = this.recent.get(path);
+        if (image != null) {
+            return image;
+        }
+        if (this.missing.containsKey(path)) {
+            return null;
+        }
+        SoftReference<Image> ref = this.evicted.remove(path);
+        image = ref == null ? null : ref.get();
+        if (image == null) {
+            image = this.decode(path);
+            if (image == null) {
+                this.missing.put(path, Boolean.TRUE);
+                return null;
+            }
+        }
+        this.recent.put(path, image);
+        this.bytes += sizeOf(image);
+        this.evict();
+        return image;
+    }
+
+    /**
+     * The method reads the image from the class path.
+     * @param path - the path of the image
+     * @return the image, or null if it can not be read
+     */
+    private Image decode(String path) {
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path);
+        if (is == null) {
+            return null;
+        }
+        try {
+            this.decodes++;
+            return ImageIO.read(is);
+        } catch (IOException e) {
+            return null;
+        } finally {
+            try {
+                is.close();
+            } catch (IOException e) {
+                ;
+            }
+        }
+    }
+
+    /**
+     * The method moves the least recently used images out of the budget to
+     * the soft references, the last image used is always kept.
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, Image>> it = this.recent.entrySet().iterator();
+        while (this.bytes > this.budget && this.recent.size() > 1) {
+            Map.Entry<String, Image> eldest = it.next();
+            this.bytes -= sizeOf(eldest.getValue());
+            this.evicted.put(eldest.getKey(), new SoftReference<Image>(eldest.getValue()));
+            it.remove();
+        }
+    }
+
+    /**
+     * The method returns the memory which a decoded image takes.
+     * @param image - the image
+     * @return number of bytes
+     */
+    public static long sizeOf(Image image) {
+        if (image instanceof BufferedImage) {
+            BufferedImage b = (BufferedImage) image;
+            int bits = b.getColorModel().getPixelSize();
+            return (long) b.getWidth() * b.getHeight() * Math.max(1, (bits + 7) / 8);
+        }
+        return (long) Math.max(0, image.getWidth(null)) * Math.max(0, image.getHeight(null)) * 4;
+    }
+
+    /**
+     * The method returns the bytes of the images which are kept strongly.
+     * @return bytes
+     */
+    public synchronized long getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * The method returns the budget of the cache in bytes.
+     * @return budget
+     */
+    public long getBudget() {
+        return this.budget;
+    }
+
+    /**
+     * The method returns the number of images which were decoded.
+     * @return decodes
+     */
+    public synchronized long getDecodes() {
+        return this.decodes;
+    }
+
+    /**
+     * The method forgets all the images.
+     */
+    public synchronized void clear() {
+        this.recent.clear();
+        this.evicted.clear();
+        this.missing.clear();
+        this.bytes = 0;
+    }
+}
@@ -0,0 +1,16 @@
+package io;
+
+import levels.LevelInformation;
+
+/**
+ * The interface of an object which gets the levels of a level set one by one,
+ * as soon as each of them is read.
+ * @author Barak Talmor
+ */
+public interface LevelListener {
+    /**
+     * The method is called for every valid level which was read.
+     * @param level - the level
+     */
+    void levelRead(LevelInformation level);
+}
@@ -0,0 +1,259 @@
+package io;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import animations.Fill;
+import collisions.Block;
+import collisions.Velocity;
+import geometryprimitives.Rectangle;
+import levels.LevelBuilder;
+import levels.LevelInformation;
+
+/**
+ * The class which loads a compiled level set (a pack), written by
+ * LevelPackCompiler. The pack of a level set is kept next to it, with
+ * PACK_SUFFIX added to its path.
+ * A pack holds, in this order, all numbers big-endian:
+ * <ul>
+ * <li>MAGIC and VERSION.</li>
+ * <li>The string table - every string once, as its length and utf-8 bytes.
+ * Everything else refers to strings by their index in the table.</li>
+ * <li>The path of the level set, and the sources - the path and crc32 of
+ * the level set and of every block definitions file it uses. The pack is
+ * stale when one of them changed.</li>
+ * <li>The fills - the strings of every fill, -1 for a missing string.</li>
+ * <li>The block table - width, height, hit points, stroke rgb (-1 for none)
+ * and fill of every kind of block.</li>
+ * <li>The levels - the key:value definitions, the velocities of the balls
+ * as dx, dy and the blocks as kind, x and y.</li>
+ * </ul>
+ * @author Barak Talmor
+ */
+public class LevelPack {
+    public static final String PACK_SUFFIX = ".pack";
+    public static final int MAGIC = 0x41524B50;
+    public static final int VERSION = 1;
+    public static final int NO_STROKE = -1;
+    // The largest width or height of a block, the fill of a block is an
+    // image of its size
+    public static final int MAX_BLOCK_SIZE = 2048;
+
+    /**
+     * The method loads the pack of the level set from the class path.
+     * @param path - the path of the level set
+     * @return the levels, or null if there is no pack or it is stale
+     */
+    public static List<LevelInformation> load(String path) {
+        URL url = ClassLoader.getSystemClassLoader().getResource(path + PACK_SUFFIX);
+        if (url == null) {
+            return null;
+        }
+        try {
+            return read(map(url), path);
+        } catch (IOException e) {
+            return null;
+        } catch (RuntimeException e) {
+            // A corrupt pack is read from its text instead
+            return null;
+        }
+    }
+
+    /**
+     * The method maps the pack to memory, a pack inside a jar is read into
+     * a buffer instead.
+     * @param url - the pack
+     * @return the bytes of the pack
+     * @throws IOException problem in reading the pack
+     */
+    private static ByteBuffer map(URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            RandomAccessFile file = null;
+            try {
+                file = new RandomAccessFile(new File(url.toURI()), "r");
+                FileChannel channel = file.getChannel();
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            } finally {
+                if (file != null) {
+                    file.close();
+                }
+            }
+        }
+        return ByteBuffer.wrap(readResource(url.openStream()));
+    }
+
+    /**
+     * The method reads the whole stream and closes it.
+     * @param is - the stream
+     * @return the bytes of the stream
+     * @throws IOException problem in reading the stream
+     */
+    public static byte[] readResource(InputStream is) throws IOException {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = is.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            is.close();
+        }
+    }
+
+    /**
+     * The method returns the crc32 of a file on the class path.
+     * @param path - the path of the file
+     * @return the crc32, or -1 if the file can not be read
+     */
+    public static long checksum(String path) {
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path);
+        if (is == null) {
+            return -1;
+        }
+        try {
+            CRC32 crc = new CRC32();
+            byte[] buffer = new byte[8192];
+            try {
+                int n;
+                while ((n = is.read(buffer)) > 0) {
+                    crc.update(buffer, 0, n);
+                }
+            } finally {
+                is.close();
+            }
+            return crc.getValue();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * The method reads a count of the pack, which the rest of the pack must
+     * be able to hold, so a corrupt count never allocates a huge array.
+     * @param buffer - the bytes of the pack
+     * @param bytesEach - the least number of bytes of every counted item
+     * @return the count
+     */
+    private static int count(ByteBuffer buffer, int bytesEach) {
+        int n = buffer.getInt();
+        if (n < 0 || n > buffer.remaining() / bytesEach) {
+            throw new BufferUnderflowException();
+        }
+        return n;
+    }
+
+    /**
+     * The method reads the width or height of a kind of block.
+     * @param buffer - the bytes of the pack
+     * @return the size
+     */
+    private static int size(ByteBuffer buffer) {
+        int n = buffer.getInt();
+        if (n <= 0 || n > MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException("Bad block size " + n);
+        }
+        return n;
+    }
+
+    /**
+     * The method builds the levels of the pack.
+     * @param buffer - the bytes of the pack
+     * @param path - the path of the level set
+     * @return the levels, or null if the pack is stale or of another version
+     */
+    private static List<LevelInformation> read(ByteBuffer buffer, String path) {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            return null;
+        }
+        String[] strings = new String[count(buffer, 4)];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[count(buffer, 1)];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        if (!strings[buffer.getInt()].equals(path)) {
+            return null;
+        }
+        int sources = count(buffer, 12);
+        for (int i = 0; i < sources; i++) {
+            String source = strings[buffer.getInt()];
+            if (checksum(source) != buffer.getLong()) {
+                return null;
+            }
+        }
+        String[][] fillStrings = new String[count(buffer, 4)][];
+        for (int i = 0; i < fillStrings.length; i++) {
+            String[] fill = new String[count(buffer, 4)];
+            for (int j = 0; j < fill.length; j++) {
+                int index = buffer.getInt();
+                fill[j] = index < 0 ? null : strings[index];
+            }
+            fillStrings[i] = fill;
+        }
+        // A fill belongs to one block definition, so it is built at the size
+        // of the first kind of block which uses it
+        Fill[] fills = new Fill[fillStrings.length];
+        int kinds = count(buffer, 20);
+        int[] widths = new int[kinds], heights = new int[kinds], hitPoints = new int[kinds];
+        Color[] strokes = new Color[kinds];
+        Fill[] kindFills = new Fill[kinds];
+        for (int i = 0; i < kinds; i++) {
+            widths[i] = size(buffer);
+            heights[i] = size(buffer);
+            hitPoints[i] = buffer.getInt();
+            int stroke = buffer.getInt();
+            strokes[i] = stroke == NO_STROKE ? null : new Color(stroke);
+            int fill = buffer.getInt();
+            if (fills[fill] == null) {
+                fills[fill] = new Fill(fillStrings[fill], widths[i], heights[i]);
+            }
+            kindFills[i] = fills[fill];
+        }
+        List<LevelInformation> levels = new ArrayList<LevelInformation>();
+        int count = count(buffer, 12);
+        for (int i = 0; i < count; i++) {
+            Map<String, String> levelDef = new TreeMap<String, String>();
+            int defs = count(buffer, 8);
+            for (int j = 0; j < defs; j++) {
+                String key = strings[buffer.getInt()];
+                levelDef.put(key, strings[buffer.getInt()]);
+            }
+            List<Velocity> velocities = new ArrayList<Velocity>();
+            int balls = count(buffer, 16);
+            for (int j = 0; j < balls; j++) {
+                double dx = buffer.getDouble();
+                velocities.add(new Velocity(dx, buffer.getDouble()));
+            }
+            List<Block> blocks = new ArrayList<Block>();
+            int blockCount = count(buffer, 12);
+            for (int j = 0; j < blockCount; j++) {
+                int kind = buffer.getInt();
+                int x = buffer.getInt();
+                int y = buffer.getInt();
+                blocks.add(new Block(new Rectangle(x, y, widths[kind], heights[kind]), kindFills[kind],
+                        strokes[kind], hitPoints[kind]));
+            }
+            levels.add(new LevelBuilder(levelDef, blocks, velocities));
+        }
+        return levels;
+    }
+}
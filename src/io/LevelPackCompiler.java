@@ -0,0 +1,248 @@
+package io;
+
+import java.awt.Color;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import animations.Fill;
+import collisions.Block;
+import collisions.Velocity;
+import geometryprimitives.Rectangle;
+import levels.LevelInformation;
+
+/**
+ * The offline compiler of level sets. It reads a level set with its block
+ * definitions files from the class path and writes them as a pack, which
+ * LevelPack loads without parsing any text. The format is described in
+ * LevelPack.
+ * @author Barak Talmor
+ */
+public class LevelPackCompiler {
+    private Map<String, Integer> strings;
+    private Map<Fill, Integer> fills;
+    private Map<String, Integer> kinds;
+    private List<int[]> kindTable;
+    private String levelSet;
+    private TreeSet<String> sources;
+    private List<Map<String, String>> levelDefs;
+    private List<LevelInformation> levels;
+
+    /**
+     * The constructor of the compiler.
+     */
+    public LevelPackCompiler() {
+        this.strings = new LinkedHashMap<String, Integer>();
+        this.fills = new IdentityHashMap<Fill, Integer>();
+        this.kinds = new LinkedHashMap<String, Integer>();
+        this.kindTable = new ArrayList<int[]>();
+        this.sources = new TreeSet<String>();
+        this.levelDefs = new ArrayList<Map<String, String>>();
+        this.levels = new ArrayList<LevelInformation>();
+    }
+
+    /**
+     * The method reads the level set from the class path, a compiler packs
+     * one level set.
+     * @param path - the path of the level set
+     * @throws IOException problem in reading the level set
+     */
+    public void read(String path) throws IOException {
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path);
+        if (is == null) {
+            throw new IOException("File Couldn't open: " + path);
+        }
+        this.levelSet = path;
+        this.sources.add(path);
+        final LevelSpecificationReader reader = new LevelSpecificationReader();
+        reader.fromReader(new InputStreamReader(is), new LevelListener() {
+            @Override
+            public void levelRead(LevelInformation level) {
+                Map<String, String> levelDef = reader.getLevelDefinition();
+                sources.add(levelDef.get("block_definitions"));
+                levelDefs.add(levelDef);
+                levels.add(level);
+            }
+        });
+    }
+
+    /**
+     * The method returns the index of the string, adding it to the table.
+     * @param s - the string, or null
+     * @return index, or -1 for null
+     */
+    private int string(String s) {
+        if (s == null) {
+            return -1;
+        }
+        Integer index = this.strings.get(s);
+        if (index == null) {
+            index = this.strings.size();
+            this.strings.put(s, index);
+        }
+        return index;
+    }
+
+    /**
+     * The method returns the index of the block's kind, adding it to the
+     * block table. Blocks which were made by the same definition share a
+     * kind.
+     * @param block - the block
+     * @return index
+     */
+    private int kind(Block block) {
+        Integer fill = this.fills.get(block.getFill());
+        if (fill == null) {
+            fill = this.fills.size();
+            this.fills.put(block.getFill(), fill);
+        }
+        Rectangle r = block.getCollisionRectangle();
+        Color frame = block.getFrameColor();
+        int[] kind = {(int) r.getWidth(), (int) r.getHeight(), block.getHitPoints(),
+                frame == null ? LevelPack.NO_STROKE : frame.getRGB() & 0xFFFFFF, fill};
+        String key = kind[0] + " " + kind[1] + " " + kind[2] + " " + kind[3] + " " + kind[4];
+        Integer index = this.kinds.get(key);
+        if (index == null) {
+            index = this.kindTable.size();
+            this.kinds.put(key, index);
+            this.kindTable.add(kind);
+        }
+        return index;
+    }
+
+    /**
+     * The method writes the levels which were read as a pack.
+     * @param packPath - the path of the pack file
+     * @throws IOException problem in writing the pack
+     */
+    public void write(String packPath) throws IOException {
+        // The tables are filled while the levels are laid out, so the levels
+        // are written after them
+        List<int[]> levelTable = new ArrayList<int[]>();
+        for (int i = 0; i < this.levels.size(); i++) {
+            Map<String, String> levelDef = this.levelDefs.get(i);
+            List<Block> blocks = this.levels.get(i).blocks();
+            int[] level = new int[1 + levelDef.size() * 2 + 1 + blocks.size() * 3];
+            int n = 0;
+            level[n++] = levelDef.size();
+            for (Map.Entry<String, String> def : levelDef.entrySet()) {
+                level[n++] = this.string(def.getKey());
+                level[n++] = this.string(def.getValue());
+            }
+            level[n++] = blocks.size();
+            for (Block block : blocks) {
+                level[n++] = this.kind(block);
+                level[n++] = (int) block.getCollisionRectangle().getX();
+                level[n++] = (int) block.getCollisionRectangle().getY();
+            }
+            levelTable.add(level);
+        }
+        Fill[] fillTable = new Fill[this.fills.size()];
+        for (Map.Entry<Fill, Integer> fill : this.fills.entrySet()) {
+            fillTable[fill.getValue()] = fill.getKey();
+        }
+        int[][] fillStrings = new int[fillTable.length][];
+        for (int i = 0; i < fillTable.length; i++) {
+            String[] s = fillTable[i].getFills();
+            fillStrings[i] = new int[s.length];
+            for (int j = 0; j < s.length; j++) {
+                fillStrings[i][j] = this.string(s[j]);
+            }
+        }
+        for (String source : this.sources) {
+            this.string(source);
+        }
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(packPath)));
+        try {
+            out.writeInt(LevelPack.MAGIC);
+            out.writeInt(LevelPack.VERSION);
+            out.writeInt(this.strings.size());
+            for (String s : this.strings.keySet()) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.writeInt(this.string(this.levelSet));
+            out.writeInt(this.sources.size());
+            for (String source : this.sources) {
+                out.writeInt(this.string(source));
+                out.writeLong(LevelPack.checksum(source));
+            }
+            out.writeInt(fillStrings.length);
+            for (int[] fill : fillStrings) {
+                writeInts(out, fill, 0, fill.length, true);
+            }
+            out.writeInt(this.kindTable.size());
+            for (int[] kind : this.kindTable) {
+                writeInts(out, kind, 0, kind.length, false);
+            }
+            out.writeInt(levelTable.size());
+            for (int i = 0; i < levelTable.size(); i++) {
+                int[] level = levelTable.get(i);
+                int defs = level[0] * 2 + 1;
+                writeInts(out, level, 0, defs, false);
+                List<Velocity> velocities = this.levels.get(i).initialBallVelocities();
+                out.writeInt(velocities.size());
+                for (Velocity v : velocities) {
+                    out.writeDouble(v.getDx());
+                    out.writeDouble(v.getDy());
+                }
+                writeInts(out, level, defs, level.length - defs, false);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * The method writes a range of the array.
+     * @param out - the stream
+     * @param values - the array
+     * @param from - the first index to write
+     * @param length - the number of values to write
+     * @param withLength - true for writing the length before the values
+     * @throws IOException problem in writing
+     */
+    private static void writeInts(DataOutputStream out, int[] values, int from, int length, boolean withLength)
+            throws IOException {
+        if (withLength) {
+            out.writeInt(length);
+        }
+        for (int i = from; i < from + length; i++) {
+            out.writeInt(values[i]);
+        }
+    }
+
+    /**
+     * The method compiles a level set. The maven build compiles the sets of
+     * level_sets.txt into target/classes, by hand it runs with the classes
+     * and the resources folder on the class path, for example:
+     * java -cp target/classes:exe/biuoop-1.4.jar:exe/ass6game.jar:resources io.LevelPackCompiler
+     * definitions/easy_level_definitions.txt resources/definitions/easy_level_definitions.txt.pack
+     * @param args - the path of the level set on the class path, and the
+     *        path of the pack file (the level set's path with ".pack" by
+     *        default)
+     * @throws IOException problem in reading or writing
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: LevelPackCompiler <level set> [pack file]");
+            return;
+        }
+        LevelPackCompiler compiler = new LevelPackCompiler();
+        compiler.read(args[0]);
+        String packPath = args.length > 1 ? args[1] : args[0] + LevelPack.PACK_SUFFIX;
+        compiler.write(packPath);
+        System.out.println(compiler.levels.size() + " levels written to " + packPath);
+    }
+}
@@ -0,0 +1,365 @@
+package io;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import collisions.Block;
+import collisions.Velocity;
+import levels.LevelBuilder;
+import levels.LevelInformation;
+
+/**
+ * The class which reads a level set. The file is read in one pass, line by
+ * line, and every level is handed over as soon as its END_LEVEL line is read,
+ * so the file is never kept in memory as a whole.
+ * @author Barak Talmor
+ */
+public class LevelSpecificationReader {
+    // The symbols of the ascii characters, so a row of blocks does not make a
+    // string for every character
+    private static final String[] SYMBOLS = new String[128];
+    private List<LevelInformation> levels;
+    private List<Velocity> velocities;
+    private List<Block> blocks;
+    private Map<String, String> levelDef;
+    private Map<String, BlocksFromSymbolsFactory> definitions;
+    private Map<String, Boolean> backgrounds;
+    private BlocksFromSymbolsFactory bfs;
+    private boolean insideLevels;
+    private boolean insideBlocks;
+    private boolean problem;
+    private int startX;
+    private int startY;
+    private int rowHeight;
+
+    static {
+        for (int i = 0; i < SYMBOLS.length; i++) {
+            SYMBOLS[i] = String.valueOf((char) i);
+        }
+    }
+
+    /**
+     * The constructor of the LevelSpecificationReader.
+     */
+    public LevelSpecificationReader() {
+        this.definitions = new TreeMap<String, BlocksFromSymbolsFactory>();
+        this.backgrounds = new TreeMap<String, Boolean>();
+        this.levels = new ArrayList<LevelInformation>();
+        this.insideLevels = false;
+        this.insideBlocks = false;
+        this.newLevel();
+    }
+
+    /**
+     * The method clears the definitions of the level which is read.
+     */
+    private void newLevel() {
+        this.blocks = new ArrayList<Block>();
+        this.levelDef = new TreeMap<String, String>();
+        this.velocities = new ArrayList<Velocity>();
+        this.problem = false;
+        this.startX = -1;
+        this.startY = -1;
+        this.rowHeight = -1;
+    }
+
+    /**
+     * The method reads the level set and returns its valid levels.
+     * @param reader - the level set
+     * @return list of levels, or null if the reader failed
+     * @throws IOException when closing the reader failed
+     */
+    public List<LevelInformation> fromReader(java.io.Reader reader) throws IOException {
+        final List<LevelInformation> list = new ArrayList<LevelInformation>();
+        boolean read = this.fromReader(reader, new LevelListener() {
+            @Override
+            public void levelRead(LevelInformation level) {
+                list.add(level);
+            }
+        });
+        this.levels = list;
+        return read ? list : null;
+    }
+
+    /**
+     * The method returns the levels of the last level set which fromReader
+     * read. The lines are handled while they are read, so there is no file
+     * to split any more.
+     * @return list of levels
+     * @throws IOException never, kept for the callers of the method
+     */
+    public List<LevelInformation> splitStringFile() throws IOException {
+        return new ArrayList<LevelInformation>(this.levels);
+    }
+
+    /**
+     * The method reads the level set and hands every valid level to the
+     * listener as soon as it is read.
+     * @param reader - the level set
+     * @param listener - gets the levels
+     * @return true if the whole reader was read, otherwise false
+     * @throws IOException when closing the reader failed
+     */
+    public boolean fromReader(java.io.Reader reader, LevelListener listener) throws IOException {
+        BufferedReader bReader = new BufferedReader(reader);
+        String line;
+        try {
+            while ((line = bReader.readLine()) != null) {
+                this.readLine(line, listener);
+            }
+        } catch (IOException e) {
+            return false;
+        } finally {
+            reader.close();
+        }
+        return true;
+    }
+
+    /**
+     * The method handles one line of the level set.
+     * @param line - the line
+     * @param listener - gets the level when the line ends it
+     */
+    private void readLine(String line, LevelListener listener) {
+        if (line.isEmpty() || line.startsWith("#")) {
+            return;
+        }
+        if (line.startsWith("START_LEVEL")) {
+            this.insideLevels = true;
+        } else if (line.startsWith("START_BLOCKS")) {
+            this.bfs = this.blockDefinitions(this.levelDef.get("block_definitions"));
+            if (this.bfs == null) {
+                this.insideLevels = false;
+                this.problem = true;
+            } else {
+                this.insideBlocks = true;
+            }
+        } else if (line.startsWith("END_BLOCKS")) {
+            this.insideBlocks = false;
+        } else if (line.startsWith("END_LEVEL")) {
+            this.insideLevels = false;
+            if (this.isValid() && !this.problem) {
+                listener.levelRead(new LevelBuilder(this.levelDef, this.blocks, this.velocities));
+            }
+            this.newLevel();
+        } else if (this.insideLevels && !this.insideBlocks) {
+            this.readDefinition(line);
+        } else if (this.insideLevels && this.insideBlocks) {
+            this.readRow(line);
+        }
+    }
+
+    /**
+     * The method returns the key:value definitions of the level which is
+     * read. A LevelListener may use it for the level it is handed.
+     * @return levelDef
+     */
+    public Map<String, String> getLevelDefinition() {
+        return this.levelDef;
+    }
+
+    /**
+     * The method reads a key:value line of the level.
+     * @param line - the line
+     */
+    private void readDefinition(String line) {
+        int colon = line.indexOf(':');
+        if (colon < 0) {
+            this.problem = true;
+            return;
+        }
+        String key = line.substring(0, colon);
+        int end = line.indexOf(':', colon + 1);
+        String value = line.substring(colon + 1, end < 0 ? line.length() : end);
+        try {
+            if (key.equals("blocks_start_x")) {
+                this.startX = Integer.parseInt(value);
+            } else if (key.equals("blocks_start_y")) {
+                this.startY = Integer.parseInt(value);
+            } else if (key.equals("row_height")) {
+                this.rowHeight = Integer.parseInt(value);
+            } else {
+                this.levelDef.put(key, value);
+            }
+        } catch (NumberFormatException e) {
+            this.problem = true;
+        }
+    }
+
+    /**
+     * The method reads a row of blocks and moves to the next row.
+     * @param line - the row
+     */
+    private void readRow(String line) {
+        int x = this.startX;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            String symbol = c < SYMBOLS.length ? SYMBOLS[c] : String.valueOf(c);
+            if (this.bfs.isSpaceSymbol(symbol)) {
+                x += this.bfs.getSpaceWidth(symbol);
+            }
+            if (this.bfs.isBlockSymbol(symbol)) {
+                Block block = this.bfs.getBlock(symbol, x, this.startY);
+                this.blocks.add(block);
+                x = (int) (x + block.getCollisionRectangle().getWidth());
+            }
+        }
+        this.startY += this.rowHeight;
+    }
+
+    /**
+     * The method returns the block definitions of the path. Every file is
+     * read once, the levels which use it share its factory.
+     * @param path - the path of the block definitions
+     * @return BlocksFromSymbolsFactory, or null if it can not be read
+     */
+    private BlocksFromSymbolsFactory blockDefinitions(String path) {
+        if (path == null) {
+            return null;
+        }
+        BlocksFromSymbolsFactory factory = this.definitions.get(path);
+        if (factory != null) {
+            return factory;
+        }
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path);
+        if (is == null) {
+            return null;
+        }
+        BufferedReader bReader = new BufferedReader(new InputStreamReader(is));
+        try {
+            factory = BlocksDefinitionReader.fromReader(bReader);
+        } finally {
+            try {
+                bReader.close();
+            } catch (IOException e) {
+                factory = null;
+            }
+        }
+        if (factory != null) {
+            this.definitions.put(path, factory);
+        }
+        return factory;
+    }
+
+    /**
+     * The method checks if the level which is read is valid.
+     * @return boolean
+     */
+    public boolean isValid() {
+        return this.isLevelDefValid() && this.isVelocitiesValid() && this.isBackgroundValid();
+    }
+
+    /**
+     * The method checks if the definitions of the level are valid.
+     * @return boolean
+     */
+    public boolean isLevelDefValid() {
+        String[] keys = {"paddle_speed", "paddle_width", "num_blocks"};
+        int[] values = {this.startX, this.startY, this.rowHeight};
+        try {
+            for (String key : keys) {
+                if (Integer.parseInt(this.levelDef.get(key)) < 0) {
+                    return false;
+                }
+            }
+            for (int value : values) {
+                if (value < 0) {
+                    return false;
+                }
+            }
+            if (!this.levelDef.containsKey("level_name") || !this.levelDef.containsKey("background")) {
+                return false;
+            }
+        } catch (Exception e) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * The method checks if the background of the level is valid. Every
+     * background is checked once, the image is not read again for the
+     * levels which use it too.
+     * @return boolean
+     */
+    public boolean isBackgroundValid() {
+        String background = this.levelDef.get("background");
+        if (background == null) {
+            return false;
+        }
+        Boolean valid = this.backgrounds.get(background);
+        if (valid == null) {
+            valid = this.checkBackground(background);
+            this.backgrounds.put(background, valid);
+        }
+        return valid;
+    }
+
+    /**
+     * The method checks if the background can be drawn.
+     * @param background - image(path) or color(...)
+     * @return boolean
+     */
+    private boolean checkBackground(String background) {
+        if (background.startsWith("image(") && this.getImage() == null) {
+            return false;
+        }
+        if (background.startsWith("color(")) {
+            Color c = new ColorsParser().colorFromString(background);
+            if (c == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The method returns the background image of the level.
+     * @return Image, or null if it can not be read
+     */
+    public Image getImage() {
+        return ImageCache.fromString(this.levelDef.get("background"));
+    }
+
+    /**
+     * The method reads the velocities of the balls, "angle,speed" pairs
+     * which are separated by spaces.
+     * @return boolean
+     */
+    public boolean isVelocitiesValid() {
+        String s = this.levelDef.get("ball_velocities");
+        if (s == null) {
+            return false;
+        }
+        try {
+            int i = 0;
+            while (i < s.length()) {
+                int end = s.indexOf(' ', i);
+                if (end < 0) {
+                    end = s.length();
+                }
+                if (end > i) {
+                    int comma = s.indexOf(',', i);
+                    if (comma < 0 || comma > end) {
+                        return false;
+                    }
+                    int angle = Integer.parseInt(s.substring(i, comma));
+                    int speed = Integer.parseInt(s.substring(comma + 1, end));
+                    this.velocities.add(Velocity.fromAngleAndSpeed(angle, speed));
+                }
+                i = end + 1;
+            }
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        return true;
+    }
+}
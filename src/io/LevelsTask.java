@@ -0,0 +1,113 @@
+package io;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import animations.AnimationRunner;
+import biuoop.KeyboardSensor;
+import levels.GameFlow;
+import levels.LevelInformation;
+import listeners.Counter;
+import simulation.InputRecorder;
+import simulation.Replay;
+
+/**
+ * The task which runs the levels of a level set. When the arkanoid.record
+ * system property names a folder, the input of every run is recorded into a
+ * replay file in it.
+ * @author Barak Talmor
+ */
+public class LevelsTask implements Task<Void> {
+    private AnimationRunner ar;
+    private KeyboardSensor ks;
+    private int lives;
+    private String path;
+    private List<LevelInformation> levels;
+
+    /**
+     * The constructor of the task.
+     * @param ar - animation runner
+     * @param ks - keyboard sensor
+     * @param lives - the number of lives in the game
+     * @param path - the path of the level set
+     */
+    public LevelsTask(AnimationRunner ar, KeyboardSensor ks, int lives, String path) {
+        this.ar = ar;
+        this.ks = ks;
+        this.lives = lives;
+        this.path = path;
+    }
+
+    @Override
+    public Void run() {
+        try {
+            this.loadLevels();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        String recordFolder = System.getProperty("arkanoid.record");
+        InputRecorder recorder = null;
+        if (recordFolder != null && this.ar.getInput() == null) {
+            recorder = new InputRecorder(this.ks, new Replay(this.path, Long.getLong("arkanoid.seed", 0),
+                    this.lives));
+            this.ar.setInput(recorder);
+        }
+        GameFlow gameFlow = new GameFlow(this.ar, this.ks, new Counter(this.lives));
+        try {
+            gameFlow.runLevels(this.levels);
+        } finally {
+            if (recorder != null) {
+                this.ar.setInput(null);
+                this.saveReplay(recorder.getReplay(), recordFolder);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The method writes the replay of a run into the folder, named by the
+     * time it was written.
+     * @param replay - the replay
+     * @param folder - the folder of the replays
+     */
+    private void saveReplay(Replay replay, String folder) {
+        File file = new File(folder, "replay-" + System.currentTimeMillis() + Replay.SUFFIX);
+        try {
+            file.getParentFile().mkdirs();
+            replay.save(file.getPath());
+        } catch (IOException e) {
+            System.err.println("Couldn't write the replay " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * The method loads the levels of the level set. The compiled pack of the
+     * level set is used when it is up to date, otherwise the text is read.
+     * @throws IOException problem in reading file
+     */
+    public void loadLevels() throws IOException {
+        this.levels = LevelPack.load(this.path);
+        if (this.levels != null) {
+            return;
+        }
+        this.levels = new ArrayList<LevelInformation>();
+        BufferedReader bReader = null;
+        try {
+            InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(this.path);
+            bReader = new BufferedReader(new InputStreamReader(is));
+            this.levels = new LevelSpecificationReader().fromReader(bReader);
+        } catch (FileNotFoundException e) {
+            System.err.print("File Couldn't open");
+        } finally {
+            if (bReader != null) {
+                bReader.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package levels;
+
+import java.awt.Color;
+import java.awt.Image;
+
+import biuoop.DrawSurface;
+import io.ColorsParser;
+import io.ImageCache;
+import sprites.Sprite;
+
+/**
+ * The background of a level, a color or an image which is scaled to the
+ * screen.
+ * @author Barak Talmor
+ */
+public class BackgroundLevel implements Sprite {
+    public static final int WIDTH = 800;
+    public static final int HEIGHT = 600;
+    private Color drawColor;
+    private Image drawImage;
+
+    /**
+     * The constructor of the background.
+     * @param s - image(path) or color(...)
+     */
+    public BackgroundLevel(String s) {
+        this.buildsColorOrImage(s);
+    }
+
+    /**
+     * The method takes the string to a color or an image.
+     * @param s - image(path) or color(...)
+     */
+    public void buildsColorOrImage(String s) {
+        if (s.startsWith("image(")) {
+            this.drawImage = ImageCache.fromString(s, WIDTH, HEIGHT);
+        } else {
+            ColorsParser cp = new ColorsParser();
+            this.drawColor = cp.colorFromString(s);
+        }
+    }
+
+    @Override
+    public void drawOn(DrawSurface d) {
+        if (this.drawColor != null) {
+            d.setColor(this.drawColor);
+            d.fillRectangle(0, 0, WIDTH, HEIGHT);
+        } else {
+            d.drawImage(0, 0, this.drawImage);
+        }
+    }
+
+    @Override
+    public void timePassed(double dt) {
+    }
+}
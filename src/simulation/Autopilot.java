@@ -0,0 +1,73 @@
+package simulation;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import animations.GameLevel;
+import biuoop.KeyboardSensor;
+import collisions.Ball;
+import collisions.Paddle;
+import geometryprimitives.Rectangle;
+
+/**
+ * Plays the paddle by pressing the keys of a simulated keyboard. The paddle
+ * follows the lowest ball which comes down, and meets it at a point of the
+ * paddle which is chosen at random every second, so plays with different
+ * seeds go different ways.
+ * @author Barak Talmor
+ */
+public class Autopilot {
+    // The steps before a new point of the paddle is chosen
+    private static final int AIM_STEPS = 60;
+    // How close the ball and the aimed point must be to stop moving
+    private static final double DEAD_ZONE = 3;
+    private SimulatedKeyboard keyboard;
+    private SplittableRandom random;
+    private double aim;
+    private int aimSteps;
+
+    /**
+     * The constructor of the autopilot.
+     * @param keyboard - the keyboard of the paddle
+     * @param seed - the seed of the random aims
+     */
+    public Autopilot(SimulatedKeyboard keyboard, long seed) {
+        this.keyboard = keyboard;
+        this.random = new SplittableRandom(seed);
+        this.aimSteps = 0;
+    }
+
+    /**
+     * The method presses the keys for the next step of the game.
+     * @param game - the game which is played
+     */
+    public void steer(GameLevel game) {
+        this.keyboard.releaseAll();
+        Paddle paddle = game.getPaddle();
+        List<Ball> balls = game.getBalls();
+        if (paddle == null || balls.isEmpty()) {
+            return;
+        }
+        if (--this.aimSteps <= 0) {
+            // From 80% of the left half to 80% of the right half
+            this.aim = this.random.nextDouble() * 1.6 - 0.8;
+            this.aimSteps = AIM_STEPS;
+        }
+        Ball target = null;
+        for (Ball ball : balls) {
+            boolean down = ball.getVelocity().getDy() > 0;
+            if (target == null || (down && target.getVelocity().getDy() <= 0)
+                    || (down == target.getVelocity().getDy() > 0 && ball.getCenter().getY() > target.getCenter().getY())) {
+                target = ball;
+            }
+        }
+        Rectangle r = paddle.getCollisionRectangle();
+        double aimed = r.getX() + r.getWidth() / 2 * (1 + this.aim);
+        double x = target.getCenter().getX();
+        if (x < aimed - DEAD_ZONE) {
+            this.keyboard.press(KeyboardSensor.LEFT_KEY);
+        } else if (x > aimed + DEAD_ZONE) {
+            this.keyboard.press(KeyboardSensor.RIGHT_KEY);
+        }
+    }
+}
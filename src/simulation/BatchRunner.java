@@ -0,0 +1,318 @@
+package simulation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import collisions.Ball;
+import collisions.Block;
+import levels.LevelInformation;
+import listeners.Counter;
+import listeners.HitListener;
+
+/**
+ * Plays every level of a level set many times headless, on all the cores,
+ * and prints how the levels play: how fast they are simulated, how long
+ * they take to clear, how often balls fall and how many blocks are hit.
+ * Every thread keeps its own copy of the levels and plays them again and
+ * again from their saved start, so the threads share nothing while they
+ * play.
+ * @author Barak Talmor
+ */
+public class BatchRunner {
+    public static final int LIVES = 7;
+    private List<String> levelSets;
+    private List<String> names;
+    private List<int[]> levels;
+    private int plays;
+    private long maxFrames;
+    private boolean autopilot;
+    private ForkJoinPool pool;
+    private ThreadLocal<Map<String, Player>> players;
+    // The results of the plays, by the index of the level times plays plus
+    // the index of the play
+    private long[] frames;
+    private boolean[] cleared;
+    private long[] ballsLost;
+    private long[] hits;
+    private long[] nanos;
+
+    /**
+     * The constructor of the batch runner.
+     * @param path - a level definitions file, or a level sets file which
+     *        lists them, on the class path
+     * @param plays - the number of plays of every level
+     * @param maxFrames - the maximal number of frames of a play
+     * @param threads - the number of threads which play
+     * @param autopilot - true for playing the paddle, false for leaving it
+     * @throws IOException problem in reading the levels
+     */
+    public BatchRunner(String path, int plays, long maxFrames, int threads, boolean autopilot) throws IOException {
+        this.levelSets = levelSetsOf(path);
+        this.names = new ArrayList<String>();
+        this.levels = new ArrayList<int[]>();
+        for (int set = 0; set < this.levelSets.size(); set++) {
+            List<LevelInformation> setLevels = HeadlessSimulation.loadLevels(this.levelSets.get(set));
+            for (int i = 0; i < setLevels.size(); i++) {
+                this.names.add(setLevels.get(i).levelName().trim());
+                this.levels.add(new int[] {set, i});
+            }
+        }
+        this.plays = plays;
+        this.maxFrames = maxFrames;
+        this.autopilot = autopilot;
+        this.pool = new ForkJoinPool(threads);
+        this.players = new ThreadLocal<Map<String, Player>>();
+    }
+
+    /**
+     * The method returns the level definitions files of a path. A level
+     * sets file lists a name line and a path line for every level set.
+     * @param path - a level definitions file or a level sets file
+     * @return the paths of the level definitions files
+     * @throws IOException problem in reading file
+     */
+    public static List<String> levelSetsOf(String path) throws IOException {
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path);
+        if (is == null) {
+            throw new IOException("File Couldn't open: " + path);
+        }
+        List<String> lines = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(is));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("START_LEVEL")) {
+                    return new ArrayList<String>(Arrays.asList(path));
+                }
+                if (!line.trim().isEmpty()) {
+                    lines.add(line.trim());
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        List<String> sets = new ArrayList<String>();
+        for (int i = 1; i < lines.size(); i += 2) {
+            sets.add(lines.get(i));
+        }
+        return sets;
+    }
+
+    /**
+     * The method plays all the plays of all the levels.
+     * @return the seconds it took
+     */
+    public double run() {
+        int jobs = this.levels.size() * this.plays;
+        this.frames = new long[jobs];
+        this.cleared = new boolean[jobs];
+        this.ballsLost = new long[jobs];
+        this.hits = new long[jobs];
+        this.nanos = new long[jobs];
+        long start = System.nanoTime();
+        this.pool.invoke(new Plays(0, jobs));
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    /**
+     * The method plays one play of a level, on the copy of the level of the
+     * current thread.
+     * @param job - the index of the level times plays plus the index of the
+     *        play, which is also the seed of the autopilot
+     */
+    private void play(int job) {
+        int[] level = this.levels.get(job / this.plays);
+        Player player;
+        try {
+            player = this.player(level[0], level[1]);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        long start = System.nanoTime();
+        HeadlessSimulation sim = player.sim;
+        sim.restart(player.start);
+        long hitsBefore = player.hits.getValue();
+        Autopilot pilot = this.autopilot ? new Autopilot(sim.getKeyboard(), job) : null;
+        boolean running = true;
+        while (running && sim.getFrames() < this.maxFrames) {
+            if (pilot != null) {
+                pilot.steer(sim.getGame());
+            }
+            running = sim.step();
+        }
+        this.nanos[job] = System.nanoTime() - start;
+        this.frames[job] = sim.getFrames();
+        this.cleared[job] = sim.getGame().getNumberOfRemainingBlocks() <= 0;
+        this.ballsLost[job] = sim.getBallsLost();
+        this.hits[job] = player.hits.getValue() - hitsBefore;
+    }
+
+    /**
+     * The method returns the copy of a level of the current thread, it is
+     * built on the first play of the level on the thread.
+     * @param set - the index of the level set
+     * @param index - the index of the level in the set
+     * @return the player of the level
+     * @throws IOException problem in reading the levels
+     */
+    private Player player(int set, int index) throws IOException {
+        Map<String, Player> threadPlayers = this.players.get();
+        if (threadPlayers == null) {
+            threadPlayers = new HashMap<String, Player>();
+            this.players.set(threadPlayers);
+        }
+        String key = set + ":" + index;
+        Player player = threadPlayers.get(key);
+        if (player == null) {
+            // Levels share their blocks between games, so every thread reads its own
+            LevelInformation level = HeadlessSimulation.loadLevels(this.levelSets.get(set)).get(index);
+            player = new Player(level);
+            threadPlayers.put(key, player);
+        }
+        return player;
+    }
+
+    /**
+     * The method prints the results of every level and of the whole run.
+     * @param seconds - the seconds the run took
+     */
+    public void report(double seconds) {
+        long totalFrames = 0;
+        for (int l = 0; l < this.levels.size(); l++) {
+            int from = l * this.plays, to = from + this.plays;
+            long levelFrames = 0, levelNanos = 0, lost = 0, levelHits = 0;
+            List<Long> clearFrames = new ArrayList<Long>();
+            for (int job = from; job < to; job++) {
+                levelFrames += this.frames[job];
+                levelNanos += this.nanos[job];
+                lost += this.ballsLost[job];
+                levelHits += this.hits[job];
+                if (this.cleared[job]) {
+                    clearFrames.add(this.frames[job]);
+                }
+            }
+            totalFrames += levelFrames;
+            double minutes = levelFrames * HeadlessSimulation.DT / 60;
+            StringBuilder line = new StringBuilder(this.names.get(l)).append(": ");
+            line.append(clearFrames.size() * 100 / this.plays).append("% cleared");
+            if (!clearFrames.isEmpty()) {
+                long[] sorted = new long[clearFrames.size()];
+                for (int i = 0; i < sorted.length; i++) {
+                    sorted[i] = clearFrames.get(i);
+                }
+                Arrays.sort(sorted);
+                line.append(String.format(", time to clear p50 %.1fs p90 %.1fs max %.1fs",
+                        percentile(sorted, 50) * HeadlessSimulation.DT, percentile(sorted, 90) * HeadlessSimulation.DT,
+                        sorted[sorted.length - 1] * HeadlessSimulation.DT));
+            }
+            line.append(String.format(", %.2f balls lost/min, %.1f hits/play, %d frames/sec/thread",
+                    minutes > 0 ? lost / minutes : 0.0, (double) levelHits / this.plays,
+                    levelNanos > 0 ? (long) (levelFrames / (levelNanos / 1e9)) : 0));
+            System.out.println(line);
+        }
+        System.out.println(String.format("%d plays, %d frames in %.2fs on %d threads: %d frames/sec",
+                this.frames.length, totalFrames, seconds, this.pool.getParallelism(), (long) (totalFrames / seconds)));
+    }
+
+    /**
+     * The method returns a percentile of sorted values.
+     * @param sorted - the values, sorted
+     * @param percent - the percentile
+     * @return the value which the given percent of the values are not above
+     */
+    private static long percentile(long[] sorted, double percent) {
+        int index = (int) Math.ceil(percent / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    /**
+     * The method plays every level of a level set many times and prints how
+     * they play. The classes, the jars of exe and the resources folder must
+     * be on the class path, for example after mvn compile:
+     * java -cp target/classes:exe/biuoop-1.4.jar:exe/ass6game.jar:resources simulation.BatchRunner
+     * level_sets.txt 1000
+     * @param args - a level definitions or level sets file, the number of
+     *        plays of every level, the maximal seconds of a play, the number
+     *        of threads, and "idle" for not moving the paddle
+     * @throws IOException problem in reading the levels
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: BatchRunner <level set> [plays] [max seconds] [threads] [auto|idle]");
+            return;
+        }
+        int plays = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        long maxFrames = (long) ((args.length > 2 ? Double.parseDouble(args[2]) : 300) / HeadlessSimulation.DT);
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        boolean autopilot = args.length <= 4 || !args[4].equals("idle");
+        BatchRunner runner = new BatchRunner(args[0], plays, maxFrames, threads, autopilot);
+        runner.report(runner.run());
+    }
+
+    /**
+     * Splits a range of plays in halves until a single play is left, so idle
+     * threads steal the halves of the busy ones.
+     */
+    private class Plays extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private int from;
+        private int to;
+
+        /**
+         * The constructor of the plays.
+         * @param from - the first job
+         * @param to - the job after the last one
+         */
+        Plays(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from == 1) {
+                BatchRunner.this.play(this.from);
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new Plays(this.from, middle), new Plays(middle, this.to));
+        }
+    }
+
+    /**
+     * The copy of a level which one thread plays, with its start state.
+     */
+    private static class Player {
+        private HeadlessSimulation sim;
+        private double[] start;
+        private Counter hits;
+
+        /**
+         * The constructor of the player.
+         * @param level - the level, which is played only by this player
+         */
+        Player(LevelInformation level) {
+            final Counter blockHits = new Counter(0);
+            for (Block block : level.blocks()) {
+                block.addHitListener(new HitListener() {
+                    @Override
+                    public void hitEvent(Block beingHit, Ball hitter) {
+                        blockHits.increase(1);
+                    }
+                });
+            }
+            this.hits = blockHits;
+            this.sim = new HeadlessSimulation(level, new SimulatedKeyboard(), new Counter(0), new Counter(LIVES));
+            this.start = this.sim.getGame().saveState(null);
+        }
+    }
+}
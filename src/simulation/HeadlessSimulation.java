@@ -0,0 +1,246 @@
+package simulation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.util.List;
+
+import animations.FixedTimestep;
+import animations.GameLevel;
+import io.LevelPack;
+import io.LevelSpecificationReader;
+import levels.LevelInformation;
+import listeners.Counter;
+
+/**
+ * Runs a level without a gui, a window or sleeping between frames, so it
+ * runs as fast as the cpu allows. Every frame is one fixed simulation step.
+ * @author Barak Talmor
+ */
+public class HeadlessSimulation {
+    public static final double DT = FixedTimestep.DEFAULT_STEP;
+    private GameLevel game;
+    private SimulatedKeyboard keyboard;
+    private Counter score;
+    private Counter lives;
+    private boolean inTurn;
+    private long frames;
+    private long ballsLost;
+
+    /**
+     * The constructor of the headless simulation.
+     * @param levelInfo - the level to simulate
+     * @param keyboard - the simulated input of the player
+     * @param score - the counter of the score
+     * @param lives - the counter of the remaining lives
+     */
+    public HeadlessSimulation(LevelInformation levelInfo, SimulatedKeyboard keyboard, Counter score, Counter lives) {
+        this(levelInfo, keyboard, score, lives, null);
+    }
+
+    /**
+     * The constructor of a headless simulation of a level of a replay.
+     * @param levelInfo - the level to simulate
+     * @param keyboard - the simulated input of the player
+     * @param score - the counter of the score
+     * @param lives - the counter of the remaining lives
+     * @param replay - the replay whose physics the level uses, or null for
+     *        the physics of the system properties
+     */
+    private HeadlessSimulation(LevelInformation levelInfo, SimulatedKeyboard keyboard, Counter score, Counter lives,
+            Replay replay) {
+        this.keyboard = keyboard;
+        this.score = score;
+        this.lives = lives;
+        this.game = new GameLevel(levelInfo, keyboard, null, score, lives);
+        if (replay != null) {
+            replay.applyPhysics(this.game);
+        }
+        this.game.initialize();
+        this.inTurn = false;
+        this.frames = 0;
+        this.ballsLost = 0;
+    }
+
+    /**
+     * The method brings the level back to a state which was saved between
+     * turns, like the state of a level which was just built, and starts
+     * counting the frames again.
+     * @param state - the state which was saved by the game
+     */
+    public void restart(double[] state) {
+        this.game.restoreState(state);
+        this.inTurn = false;
+        this.frames = 0;
+        this.ballsLost = 0;
+    }
+
+    /**
+     * The method simulates one frame. A new turn is started when needed.
+     * @return true if the level is still running, otherwise false
+     */
+    public boolean step() {
+        if (this.isOver()) {
+            return false;
+        }
+        if (!this.inTurn) {
+            this.game.startTurn();
+            this.inTurn = true;
+        }
+        int balls = this.game.getNumberOfRemainingBalls();
+        this.game.doOneStep(DT);
+        this.frames++;
+        this.ballsLost += Math.max(0, balls - this.game.getNumberOfRemainingBalls());
+        if (this.game.shouldStop()) {
+            this.game.endTurn();
+            this.inTurn = false;
+        }
+        return !this.isOver();
+    }
+
+    /**
+     * The method simulates frames until the level is over or the limit is
+     * reached.
+     * @param maxFrames - the maximal number of frames to simulate
+     * @return the number of frames simulated
+     */
+    public long run(long maxFrames) {
+        long start = this.frames;
+        while (this.frames - start < maxFrames && this.step()) {
+            continue;
+        }
+        return this.frames - start;
+    }
+
+    /**
+     * The method checks if the level is over, cleared or out of lives.
+     * @return boolean
+     */
+    public boolean isOver() {
+        return this.game.getNumberOfRemainingBlocks() <= 0 || this.lives.getValue() <= 0;
+    }
+
+    /**
+     * The method returns the game level which is simulated.
+     * @return game
+     */
+    public GameLevel getGame() {
+        return this.game;
+    }
+
+    /**
+     * The method returns the simulated keyboard.
+     * @return keyboard
+     */
+    public SimulatedKeyboard getKeyboard() {
+        return this.keyboard;
+    }
+
+    /**
+     * The method returns the score counter.
+     * @return score
+     */
+    public Counter getScore() {
+        return this.score;
+    }
+
+    /**
+     * The method returns the lives counter.
+     * @return lives
+     */
+    public Counter getLives() {
+        return this.lives;
+    }
+
+    /**
+     * The method returns the number of frames simulated so far.
+     * @return frames
+     */
+    public long getFrames() {
+        return this.frames;
+    }
+
+    /**
+     * The method returns the number of balls which fell since the start.
+     * @return ballsLost
+     */
+    public long getBallsLost() {
+        return this.ballsLost;
+    }
+
+    /**
+     * The method reads the levels of a level definitions file from the class
+     * path, from its compiled pack when it is up to date.
+     * @param path - the path of the level definitions file
+     * @return the levels
+     * @throws IOException problem in reading file
+     */
+    public static List<LevelInformation> loadLevels(String path) throws IOException {
+        List<LevelInformation> levels = LevelPack.load(path);
+        if (levels != null) {
+            return levels;
+        }
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path);
+        if (is == null) {
+            throw new IOException("File Couldn't open: " + path);
+        }
+        Reader reader = new InputStreamReader(is);
+        try {
+            return new LevelSpecificationReader().fromReader(reader);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * The method plays a recorded session headless. The levels are played
+     * in order like in the game, with the keys of the replay, until the
+     * lives or the recorded steps run out.
+     * @param replay - the recorded session
+     * @param out - where the result of every level is printed
+     * @return the score of the session
+     * @throws IOException problem in reading the levels
+     */
+    public static Counter replay(Replay replay, PrintStream out) throws IOException {
+        ReplayKeyboard input = new ReplayKeyboard(replay, null);
+        Counter score = new Counter(0);
+        Counter lives = new Counter(replay.getLives());
+        for (LevelInformation level : loadLevels(replay.getLevelSet())) {
+            HeadlessSimulation sim = new HeadlessSimulation(level, new SimulatedKeyboard(), score, lives, replay);
+            sim.getGame().setInput(input);
+            while (!input.isFinished() && sim.step()) {
+                continue;
+            }
+            out.println(level.levelName() + ": " + sim.getFrames() + " steps, score " + score.getValue()
+                    + ", lives " + lives.getValue());
+            if (lives.getValue() <= 0 || input.isFinished()) {
+                break;
+            }
+        }
+        return score;
+    }
+
+    /**
+     * The method runs every level of a level definitions file headless and
+     * prints how fast it was simulated. The balls are moved in parallel when
+     * the arkanoid.parallelPhysics system property is true.
+     * @param args - the level definitions file and the maximal number of
+     *        frames per level
+     * @throws IOException problem in reading file
+     */
+    public static void main(String[] args) throws IOException {
+        String path = args.length > 0 ? args[0] : "definitions/easy_level_definitions.txt";
+        long maxFrames = args.length > 1 ? Long.parseLong(args[1]) : 60 * 60 * 5;
+        for (LevelInformation level : loadLevels(path)) {
+            HeadlessSimulation sim = new HeadlessSimulation(level, new SimulatedKeyboard(), new Counter(0),
+                    new Counter(1));
+            long start = System.nanoTime();
+            long frames = sim.run(maxFrames);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.println(level.levelName() + ": " + frames + " frames, "
+                    + (long) (frames / seconds) + " frames/sec, score " + sim.getScore().getValue());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package simulation;
+
+import biuoop.KeyboardSensor;
+
+/**
+ * A keyboard sensor which records the keys of a real keyboard into a
+ * replay. The recorded keys are read once at the start of every step and
+ * keep that state for the whole step, the other keys are read from the real
+ * keyboard directly.
+ * @author Barak Talmor
+ */
+public class InputRecorder implements TickKeyboard {
+    private KeyboardSensor keyboard;
+    private Replay replay;
+    private String[] keys;
+    private int mask;
+
+    /**
+     * The constructor of the recorder.
+     * @param keyboard - the real keyboard
+     * @param replay - the replay which the steps are added to
+     */
+    public InputRecorder(KeyboardSensor keyboard, Replay replay) {
+        this.keyboard = keyboard;
+        this.replay = replay;
+        this.keys = replay.getKeys();
+        this.mask = 0;
+    }
+
+    @Override
+    public void tick() {
+        this.mask = 0;
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.keyboard.isPressed(this.keys[i])) {
+                this.mask |= 1 << i;
+            }
+        }
+        this.replay.addTick(this.mask);
+    }
+
+    @Override
+    public boolean isPressed(String key) {
+        int bit = this.replay.bitOf(key);
+        if (bit < 0) {
+            return this.keyboard.isPressed(key);
+        }
+        return (this.mask & (1 << bit)) != 0;
+    }
+
+    /**
+     * The method returns the replay which is recorded.
+     * @return replay
+     */
+    public Replay getReplay() {
+        return this.replay;
+    }
+}
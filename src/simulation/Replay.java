@@ -0,0 +1,351 @@
+package simulation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import animations.FixedTimestep;
+import animations.GameLevel;
+import biuoop.KeyboardSensor;
+import listeners.Counter;
+
+/**
+ * The input of a played session, kept to play the session again exactly.
+ * The game is simulated in fixed steps, so the level set, the number of
+ * lives, the physics and the keys which were pressed on every step are all
+ * it takes to repeat it.
+ * The keys of a step are kept as a mask, one bit for every key in the
+ * recorded keys. The keys change rarely, so the steps are kept as runs of
+ * the same mask.
+ * The format of the file, in the order it is written:
+ * int MAGIC, int VERSION, the level set, long seed, int lives, double
+ * step, the physics, the number of recorded keys and their names (the
+ * strings as modified UTF-8), and then the runs, each as the number of its
+ * steps and its mask, both as variable length ints. A run of 0 steps ends
+ * the file.
+ * @author Barak Talmor
+ */
+public class Replay {
+    public static final int MAGIC = 0x41524B52;
+    public static final int VERSION = 1;
+    public static final String SUFFIX = ".arkr";
+    public static final String SERIAL = "serial";
+    public static final String PARALLEL = "parallel";
+    public static final String EVENT = "event";
+    public static final String ARRAYS = "arrays";
+    // The keys which move the game, the pause keys only stop the runner
+    private static final String[] KEYS = {KeyboardSensor.LEFT_KEY, KeyboardSensor.RIGHT_KEY};
+    private String levelSet;
+    private long seed;
+    private int lives;
+    private double step;
+    private String physics;
+    private String[] keys;
+    private int[] masks;
+    private int[] counts;
+    private int runs;
+    private long ticks;
+
+    /**
+     * The constructor of an empty replay of the current physics.
+     * @param levelSet - the path of the level set which is played
+     * @param seed - the seed of the session
+     * @param lives - the number of lives at the start of the session
+     */
+    public Replay(String levelSet, long seed, int lives) {
+        this(levelSet, seed, lives, FixedTimestep.DEFAULT_STEP, currentPhysics(), KEYS);
+    }
+
+    /**
+     * The constructor of an empty replay.
+     * @param levelSet - the path of the level set which is played
+     * @param seed - the seed of the session
+     * @param lives - the number of lives at the start of the session
+     * @param step - the seconds of one simulation step
+     * @param physics - how the balls are moved, SERIAL, PARALLEL, EVENT or ARRAYS
+     * @param keys - the recorded keys
+     */
+    private Replay(String levelSet, long seed, int lives, double step, String physics, String[] keys) {
+        this.levelSet = levelSet;
+        this.seed = seed;
+        this.lives = lives;
+        this.step = step;
+        this.physics = physics;
+        this.keys = keys;
+        this.masks = new int[16];
+        this.counts = new int[16];
+        this.runs = 0;
+        this.ticks = 0;
+    }
+
+    /**
+     * The method returns how the balls are moved by the current system
+     * properties.
+     * @return SERIAL, PARALLEL, EVENT or ARRAYS
+     */
+    public static String currentPhysics() {
+        if (Boolean.getBoolean("arkanoid.ballSystem")) {
+            return ARRAYS;
+        }
+        if (Boolean.getBoolean("arkanoid.eventPhysics")) {
+            return EVENT;
+        }
+        return Boolean.getBoolean("arkanoid.parallelPhysics") ? PARALLEL : SERIAL;
+    }
+
+    /**
+     * The method makes the level move its balls like the recorded session.
+     * It must be called before the balls are added to the level.
+     * @param game - the level
+     */
+    public void applyPhysics(GameLevel game) {
+        if (ARRAYS.equals(this.physics)) {
+            game.setBallSystem(true);
+        } else if (EVENT.equals(this.physics)) {
+            game.setEventDrivenPhysics(true);
+        } else {
+            game.setParallelPhysics(PARALLEL.equals(this.physics));
+        }
+    }
+
+    /**
+     * The method adds a step with the given keys to the end of the replay.
+     * @param mask - the keys which were pressed on the step
+     */
+    public void addTick(int mask) {
+        this.addRun(mask, 1);
+    }
+
+    /**
+     * The method adds steps with the same keys to the end of the replay.
+     * @param mask - the keys which were pressed on the steps
+     * @param count - the number of steps
+     */
+    private void addRun(int mask, int count) {
+        this.ticks += count;
+        if (this.runs > 0 && this.masks[this.runs - 1] == mask) {
+            this.counts[this.runs - 1] += count;
+            return;
+        }
+        if (this.runs == this.masks.length) {
+            this.masks = Arrays.copyOf(this.masks, this.runs * 2);
+            this.counts = Arrays.copyOf(this.counts, this.runs * 2);
+        }
+        this.masks[this.runs] = mask;
+        this.counts[this.runs] = count;
+        this.runs++;
+    }
+
+    /**
+     * The method returns the bit of the key in the masks.
+     * @param key - the key
+     * @return the index of the bit, or -1 if the key is not recorded
+     */
+    public int bitOf(String key) {
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The method returns the recorded keys, in the order of their bits.
+     * @return keys
+     */
+    public String[] getKeys() {
+        return this.keys.clone();
+    }
+
+    /**
+     * The method returns the path of the level set which was played.
+     * @return levelSet
+     */
+    public String getLevelSet() {
+        return this.levelSet;
+    }
+
+    /**
+     * The method returns the seed of the session.
+     * @return seed
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * The method returns the number of lives at the start of the session.
+     * @return lives
+     */
+    public int getLives() {
+        return this.lives;
+    }
+
+    /**
+     * The method returns how the balls were moved.
+     * @return SERIAL, PARALLEL, EVENT or ARRAYS
+     */
+    public String getPhysics() {
+        return this.physics;
+    }
+
+    /**
+     * The method returns the number of runs of the same keys.
+     * @return runs
+     */
+    public int getRuns() {
+        return this.runs;
+    }
+
+    /**
+     * The method returns the keys of a run.
+     * @param run - the index of the run
+     * @return the mask of the keys
+     */
+    public int getMask(int run) {
+        return this.masks[run];
+    }
+
+    /**
+     * The method returns the number of steps of a run.
+     * @param run - the index of the run
+     * @return the number of steps
+     */
+    public int getCount(int run) {
+        return this.counts[run];
+    }
+
+    /**
+     * The method returns the number of steps in the replay.
+     * @return ticks
+     */
+    public long getTicks() {
+        return this.ticks;
+    }
+
+    /**
+     * The method writes the replay to a file.
+     * @param path - the path of the file
+     * @throws IOException problem in writing
+     */
+    public void save(String path) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(this.levelSet);
+            out.writeLong(this.seed);
+            out.writeInt(this.lives);
+            out.writeDouble(this.step);
+            out.writeUTF(this.physics);
+            out.writeByte(this.keys.length);
+            for (String key : this.keys) {
+                out.writeUTF(key);
+            }
+            for (int i = 0; i < this.runs; i++) {
+                writeVarInt(out, this.counts[i]);
+                writeVarInt(out, this.masks[i]);
+            }
+            writeVarInt(out, 0);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * The method reads a replay from a file.
+     * @param path - the path of the file
+     * @return the replay
+     * @throws IOException problem in reading, or the file is not a replay
+     *         this game can play
+     */
+    public static Replay load(String path) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)));
+        try {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a replay file: " + path);
+            }
+            String levelSet = in.readUTF();
+            long seed = in.readLong();
+            int lives = in.readInt();
+            double step = in.readDouble();
+            if (step != FixedTimestep.DEFAULT_STEP) {
+                throw new IOException("The replay was recorded with steps of " + step + " seconds");
+            }
+            String physics = in.readUTF();
+            String[] keys = new String[in.readUnsignedByte()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = in.readUTF();
+            }
+            Replay replay = new Replay(levelSet, seed, lives, step, physics, keys);
+            int count;
+            while ((count = readVarInt(in)) > 0) {
+                replay.addRun(readVarInt(in), count);
+            }
+            return replay;
+        } catch (EOFException e) {
+            throw new IOException("The replay file is cut: " + path);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * The method writes a non negative int in groups of 7 bits, the low
+     * group first, so small values take one byte.
+     * @param out - the stream
+     * @param value - the value
+     * @throws IOException problem in writing
+     */
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * The method reads an int which was written by writeVarInt.
+     * @param in - the stream
+     * @return the value
+     * @throws IOException problem in reading
+     */
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Bad number in the replay file");
+    }
+
+    /**
+     * The method plays a replay headless and prints the result of every
+     * level, for checking that a session repeats exactly. The resources
+     * folder must be on the class path.
+     * @param args - the path of the replay file
+     * @throws IOException problem in reading the replay or the levels
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: Replay <replay file>");
+            return;
+        }
+        Replay replay = load(args[0]);
+        System.out.println(replay.getLevelSet() + ", " + replay.getLives() + " lives, " + replay.getPhysics()
+                + " physics, " + replay.getTicks() + " steps in " + replay.getRuns() + " runs");
+        Counter score = HeadlessSimulation.replay(replay, System.out);
+        System.out.println("Final score " + score.getValue());
+    }
+}
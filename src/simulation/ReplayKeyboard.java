@@ -0,0 +1,70 @@
+package simulation;
+
+import biuoop.KeyboardSensor;
+
+/**
+ * A keyboard sensor which plays the keys of a replay, one step at a time.
+ * The keys which are not in the replay, like the pause keys, can still be
+ * read from a real keyboard.
+ * @author Barak Talmor
+ */
+public class ReplayKeyboard implements TickKeyboard {
+    private Replay replay;
+    private KeyboardSensor fallback;
+    private int run;
+    private int used;
+    private int mask;
+
+    /**
+     * The constructor of the replay keyboard.
+     * @param replay - the replay to play
+     * @param fallback - the keyboard of the keys which are not in the
+     *        replay, or null for not pressing them
+     */
+    public ReplayKeyboard(Replay replay, KeyboardSensor fallback) {
+        this.replay = replay;
+        this.fallback = fallback;
+        this.run = 0;
+        this.used = 0;
+        this.mask = 0;
+    }
+
+    @Override
+    public void tick() {
+        if (this.isFinished()) {
+            this.mask = 0;
+            return;
+        }
+        this.mask = this.replay.getMask(this.run);
+        this.used++;
+        if (this.used == this.replay.getCount(this.run)) {
+            this.run++;
+            this.used = 0;
+        }
+    }
+
+    /**
+     * The method returns the replay which is played.
+     * @return replay
+     */
+    public Replay getReplay() {
+        return this.replay;
+    }
+
+    /**
+     * The method checks if every step of the replay was played.
+     * @return boolean
+     */
+    public boolean isFinished() {
+        return this.run >= this.replay.getRuns();
+    }
+
+    @Override
+    public boolean isPressed(String key) {
+        int bit = this.replay.bitOf(key);
+        if (bit < 0) {
+            return this.fallback != null && this.fallback.isPressed(key);
+        }
+        return (this.mask & (1 << bit)) != 0;
+    }
+}
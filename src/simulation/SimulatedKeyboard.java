@@ -0,0 +1,50 @@
+package simulation;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import biuoop.KeyboardSensor;
+
+/**
+ * A keyboard sensor whose keys are pressed and released by code instead of
+ * a real keyboard.
+ * @author Barak Talmor
+ */
+public class SimulatedKeyboard implements KeyboardSensor {
+    private Set<String> pressed;
+
+    /**
+     * The constructor of the simulated keyboard, with no key pressed.
+     */
+    public SimulatedKeyboard() {
+        this.pressed = new TreeSet<String>();
+    }
+
+    /**
+     * The method presses the key until it is released.
+     * @param key - the key to press
+     */
+    public void press(String key) {
+        this.pressed.add(key);
+    }
+
+    /**
+     * The method releases the key.
+     * @param key - the key to release
+     */
+    public void release(String key) {
+        this.pressed.remove(key);
+    }
+
+    /**
+     * The method releases all the keys.
+     */
+    public void releaseAll() {
+        this.pressed.clear();
+    }
+
+    @Override
+    public boolean isPressed(String key) {
+        return this.pressed.contains(key);
+    }
+}
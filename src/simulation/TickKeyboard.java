@@ -0,0 +1,17 @@
+package simulation;
+
+import biuoop.KeyboardSensor;
+
+/**
+ * A keyboard sensor whose keys change only between simulation steps, so
+ * every step of the game sees one state of the keys which can be recorded
+ * and played again.
+ * @author Barak Talmor
+ */
+public interface TickKeyboard extends KeyboardSensor {
+    /**
+     * The method moves the keyboard to the state of the next simulation
+     * step. It is called once at the start of every step.
+     */
+    void tick();
+}
@@ -0,0 +1,304 @@
+package simulation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import animations.GameLevel;
+import biuoop.KeyboardSensor;
+import collisions.Ball;
+import collisions.Paddle;
+import geometryprimitives.Rectangle;
+import levels.LevelInformation;
+import listeners.Counter;
+
+/**
+ * Many games played side by side for training paddle bots. Every game is a
+ * real level with the game's own collision rules, and one call of step
+ * moves all of them one simulation step with the actions of the bots.
+ * The results are written into flat arrays which are kept for the life of
+ * the environment: the observations, K times getObservationSize values,
+ * the rewards and the done flags. A game which is done starts again from
+ * the start of its level in the same step, so its observation is the
+ * first one of its next episode.
+ * An observation holds, at the OBS_ offsets, the x of the middle of the
+ * paddle, the lives, the remaining blocks, and then BALL_VALUES values for
+ * every ball up to the maximal number of balls: its x, y, dx and dy, or
+ * zeros if there is no such ball. Places are in pixels and velocities in
+ * pixels per second.
+ * @author Barak Talmor
+ */
+public class VectorEnvironment {
+    public static final int NONE = 0;
+    public static final int LEFT = 1;
+    public static final int RIGHT = 2;
+    public static final int OBS_PADDLE = 0;
+    public static final int OBS_LIVES = 1;
+    public static final int OBS_BLOCKS = 2;
+    public static final int OBS_BALLS = 3;
+    public static final int BALL_VALUES = 4;
+    // The reward of a life which is lost, a cleared block gives 5 to 15
+    public static final double LIFE_PENALTY = 100;
+    // Where the paddle of the next turn starts
+    private static final double PADDLE_START = 400;
+    // The least number of games a thread moves in one task
+    private static final int THRESHOLD = 8;
+    private HeadlessSimulation[] games;
+    private double[][] starts;
+    private int[] lastActions;
+    private int maxBalls;
+    private long maxSteps;
+    private int observationSize;
+    private double[] observations;
+    private double[] rewards;
+    private boolean[] done;
+    private ForkJoinPool pool;
+
+    /**
+     * The constructor of the environment, with a game for every level.
+     * Every game changes its level, so the levels must not be shared.
+     * @param levels - the levels of the games
+     * @param lives - the lives of every episode
+     * @param maxBalls - the number of balls which are observed
+     * @param maxSteps - the steps after which an episode is done
+     * @param pool - the pool which moves the games, or null for moving them
+     *        on the calling thread
+     */
+    public VectorEnvironment(List<LevelInformation> levels, int lives, int maxBalls, long maxSteps,
+            ForkJoinPool pool) {
+        int count = levels.size();
+        this.games = new HeadlessSimulation[count];
+        this.starts = new double[count][];
+        for (int i = 0; i < count; i++) {
+            this.games[i] = new HeadlessSimulation(levels.get(i), new SimulatedKeyboard(), new Counter(0),
+                    new Counter(lives));
+            this.starts[i] = this.games[i].getGame().saveState(null);
+        }
+        this.lastActions = new int[count];
+        this.maxBalls = maxBalls;
+        this.maxSteps = maxSteps;
+        this.observationSize = OBS_BALLS + maxBalls * BALL_VALUES;
+        this.observations = new double[count * this.observationSize];
+        this.rewards = new double[count];
+        this.done = new boolean[count];
+        this.pool = pool;
+    }
+
+    /**
+     * The method builds an environment of games of a level set, every level
+     * of the set gets the same share of the games.
+     * @param path - the path of the level definitions file
+     * @param count - the number of games
+     * @param lives - the lives of every episode
+     * @param maxBalls - the number of balls which are observed
+     * @param maxSteps - the steps after which an episode is done
+     * @param pool - the pool which moves the games, or null
+     * @return the environment
+     * @throws IOException problem in reading the levels
+     */
+    public static VectorEnvironment fromLevelSet(String path, int count, int lives, int maxBalls, long maxSteps,
+            ForkJoinPool pool) throws IOException {
+        List<LevelInformation> levels = new ArrayList<LevelInformation>();
+        List<LevelInformation> set = null;
+        for (int i = 0; i < count; i++) {
+            // Every game needs its own blocks, so the set is read again for
+            // every round of games over its levels
+            if (set == null || i % set.size() == 0) {
+                set = HeadlessSimulation.loadLevels(path);
+            }
+            levels.add(set.get(i % set.size()));
+        }
+        return new VectorEnvironment(levels, lives, maxBalls, maxSteps, pool);
+    }
+
+    /**
+     * The method starts all the games from the start of their levels.
+     * @return the observations
+     */
+    public double[] reset() {
+        for (int i = 0; i < this.games.length; i++) {
+            this.restart(i);
+            this.rewards[i] = 0;
+            this.done[i] = false;
+            this.observe(i);
+        }
+        return this.observations;
+    }
+
+    /**
+     * The method moves every game one step with the action of its bot.
+     * @param actions - NONE, LEFT or RIGHT for every game
+     * @return the observations after the step
+     */
+    public double[] step(int[] actions) {
+        if (actions.length != this.games.length) {
+            throw new IllegalArgumentException("Expected " + this.games.length + " actions");
+        }
+        if (this.pool == null || this.games.length <= THRESHOLD) {
+            this.stepRange(actions, 0, this.games.length);
+        } else {
+            this.pool.invoke(new Steps(actions, 0, this.games.length));
+        }
+        return this.observations;
+    }
+
+    /**
+     * The method moves a range of the games one step.
+     * @param actions - the actions of all the games
+     * @param from - the first game
+     * @param to - the game after the last one
+     */
+    private void stepRange(int[] actions, int from, int to) {
+        for (int i = from; i < to; i++) {
+            HeadlessSimulation game = this.games[i];
+            this.press(i, actions[i]);
+            int score = game.getScore().getValue();
+            int lives = game.getLives().getValue();
+            boolean running = game.step();
+            this.rewards[i] = game.getScore().getValue() - score
+                    - LIFE_PENALTY * (lives - game.getLives().getValue());
+            this.done[i] = !running || game.getFrames() >= this.maxSteps;
+            if (this.done[i]) {
+                this.restart(i);
+            }
+            this.observe(i);
+        }
+    }
+
+    /**
+     * The method presses the keys of an action, the keyboard changes only
+     * when the action does.
+     * @param i - the index of the game
+     * @param action - NONE, LEFT or RIGHT
+     */
+    private void press(int i, int action) {
+        if (action == this.lastActions[i]) {
+            return;
+        }
+        SimulatedKeyboard keyboard = this.games[i].getKeyboard();
+        keyboard.releaseAll();
+        if (action == LEFT) {
+            keyboard.press(KeyboardSensor.LEFT_KEY);
+        } else if (action == RIGHT) {
+            keyboard.press(KeyboardSensor.RIGHT_KEY);
+        }
+        this.lastActions[i] = action;
+    }
+
+    /**
+     * The method starts a game again from the start of its level.
+     * @param i - the index of the game
+     */
+    private void restart(int i) {
+        this.games[i].restart(this.starts[i]);
+        this.press(i, NONE);
+    }
+
+    /**
+     * The method writes the observation of a game.
+     * @param i - the index of the game
+     */
+    private void observe(int i) {
+        GameLevel game = this.games[i].getGame();
+        int at = i * this.observationSize;
+        Paddle paddle = game.getPaddle();
+        double paddleX = PADDLE_START;
+        if (paddle != null) {
+            Rectangle r = paddle.getCollisionRectangle();
+            paddleX = r.getX() + r.getWidth() / 2;
+        }
+        this.observations[at + OBS_PADDLE] = paddleX;
+        this.observations[at + OBS_LIVES] = this.games[i].getLives().getValue();
+        this.observations[at + OBS_BLOCKS] = game.getNumberOfRemainingBlocks();
+        at += OBS_BALLS;
+        for (int b = 0; b < this.maxBalls; b++, at += BALL_VALUES) {
+            Ball ball = game.getBall(b);
+            if (ball == null) {
+                for (int v = 0; v < BALL_VALUES; v++) {
+                    this.observations[at + v] = 0;
+                }
+            } else {
+                this.observations[at] = ball.getCenter().getX();
+                this.observations[at + 1] = ball.getCenter().getY();
+                this.observations[at + 2] = ball.getVelocity().getDx();
+                this.observations[at + 3] = ball.getVelocity().getDy();
+            }
+        }
+    }
+
+    /**
+     * The method returns the number of games.
+     * @return the number of games
+     */
+    public int size() {
+        return this.games.length;
+    }
+
+    /**
+     * The method returns the number of values of one observation.
+     * @return observationSize
+     */
+    public int getObservationSize() {
+        return this.observationSize;
+    }
+
+    /**
+     * The method returns the observations of the last step.
+     * @return observations
+     */
+    public double[] getObservations() {
+        return this.observations;
+    }
+
+    /**
+     * The method returns the rewards of the last step: the score which was
+     * gained, less LIFE_PENALTY for a lost life.
+     * @return rewards
+     */
+    public double[] getRewards() {
+        return this.rewards;
+    }
+
+    /**
+     * The method returns which games ended their episode on the last step.
+     * @return done
+     */
+    public boolean[] getDone() {
+        return this.done;
+    }
+
+    /**
+     * Splits a range of games in halves until a few are left, and moves
+     * them one step.
+     */
+    private class Steps extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private int[] actions;
+        private int from;
+        private int to;
+
+        /**
+         * The constructor of the steps.
+         * @param actions - the actions of all the games
+         * @param from - the first game
+         * @param to - the game after the last one
+         */
+        Steps(int[] actions, int from, int to) {
+            this.actions = actions;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= THRESHOLD) {
+                VectorEnvironment.this.stepRange(this.actions, this.from, this.to);
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new Steps(this.actions, this.from, middle), new Steps(this.actions, middle, this.to));
+        }
+    }
+}
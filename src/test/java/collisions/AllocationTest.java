@@ -0,0 +1,167 @@
+package collisions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.awt.Color;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import geometryprimitives.Point;
+import geometryprimitives.Rectangle;
+
+/**
+ * Checks that the stepping and ray cast paths of the balls allocate nothing
+ * in steady state. Every path is warmed up and then run many times while
+ * the bytes the thread allocated are counted, and any byte fails the test.
+ * The jit may allocate a little while it recompiles a method in the middle
+ * of a round, so the round which allocated the least counts, a path which
+ * allocates does so in every round.
+ * Hits still build the new velocity of the ball, so the tests step balls
+ * which fly freely.
+ * @author Barak Talmor
+ */
+public class AllocationTest {
+    private static final int WARMUP = 200000;
+    private static final int STEPS = 1000000;
+    private static final int ROUNDS = 5;
+    private static final int SEGMENTS = 1024;
+    private static com.sun.management.ThreadMXBean threads;
+    // Results are folded into this field so the jit can not remove the work
+    private static volatile double sink;
+
+    /**
+     * A path which is checked, one step at a time.
+     */
+    private abstract static class Path {
+        /**
+         * The method runs the checked path once.
+         * @param i - the number of the step, for choosing inputs
+         * @return a value depending on the work, so it is not optimized away
+         */
+        abstract double step(int i);
+    }
+
+    /**
+     * The method turns on the counting of the bytes a thread allocates, the
+     * tests are skipped on a JVM which can not count them.
+     */
+    @BeforeClass
+    public static void setUpClass() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    /**
+     * A ball which crosses the empty lower part of the screen allocates
+     * nothing in a step.
+     */
+    @Test
+    public void moveOneStepDoesNotAllocate() {
+        final Ball ball = new Ball(100, 560, 5, Color.WHITE, environment(100));
+        ball.setVelocity(60, 0);
+        assertEquals(0, allocated(new Path() {
+            @Override
+            double step(int i) {
+                // The ball starts again before it reaches the wall
+                if (i % 500 == 0) {
+                    ball.getCenter().setX(100);
+                    ball.getCenter().setY(560);
+                }
+                ball.moveOneStep(1.0 / 60);
+                return ball.getCenter().getX();
+            }
+        }));
+    }
+
+    /**
+     * The query of the closest collision on primitives allocates nothing,
+     * whether it hits or misses.
+     */
+    @Test
+    public void closestCollisionDoesNotAllocate() {
+        final GameEnvironment env = environment(100);
+        final double[] segments = randomSegments(new Random(6), 17);
+        final CollisionInfo info = new CollisionInfo(new Point(0, 0), null);
+        assertEquals(0, allocated(new Path() {
+            @Override
+            double step(int i) {
+                int s = (i & (SEGMENTS - 1)) * 4;
+                return env.getClosestCollision(segments[s], segments[s + 1], segments[s + 2], segments[s + 3], info)
+                        ? info.time() : 0;
+            }
+        }));
+    }
+
+    /**
+     * The method warms up the path and counts the bytes which its steps
+     * allocate, without the bytes which counting itself allocates.
+     * @param path - the path
+     * @return the allocated bytes of the round which allocated the least
+     */
+    private static long allocated(Path path) {
+        double acc = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            acc += path.step(i);
+        }
+        long id = Thread.currentThread().getId();
+        long least = Long.MAX_VALUE;
+        for (int r = 0; r < ROUNDS; r++) {
+            long start = threads.getThreadAllocatedBytes(id);
+            long probe = threads.getThreadAllocatedBytes(id) - start;
+            start = threads.getThreadAllocatedBytes(id);
+            for (int i = 0; i < STEPS; i++) {
+                acc += path.step(i);
+            }
+            least = Math.min(least, threads.getThreadAllocatedBytes(id) - start - probe);
+        }
+        sink += acc;
+        return least;
+    }
+
+    /**
+     * The method builds random segments inside the game screen.
+     * @param rand - random generator
+     * @param length - the length of every segment
+     * @return the coordinates x1, y1, x2, y2 of SEGMENTS segments
+     */
+    private static double[] randomSegments(Random rand, double length) {
+        double[] segments = new double[SEGMENTS * 4];
+        for (int i = 0; i < segments.length; i += 4) {
+            double x = 25 + rand.nextDouble() * 750, y = 45 + rand.nextDouble() * 540;
+            double angle = rand.nextDouble() * 2 * Math.PI;
+            segments[i] = x;
+            segments[i + 1] = y;
+            segments[i + 2] = x + Math.cos(angle) * length;
+            segments[i + 3] = y + Math.sin(angle) * length;
+        }
+        return segments;
+    }
+
+    /**
+     * The method builds a game environment with the frame of the game and
+     * count blocks tiled over the upper part of the screen.
+     * @param count - the number of blocks
+     * @return the environment
+     */
+    private static GameEnvironment environment(int count) {
+        GameEnvironment env = new GameEnvironment();
+        env.addCollidable(new Block(new Rectangle(new Point(0, 20), 780, 25), null, Color.GRAY, 0));
+        env.addCollidable(new Block(new Rectangle(new Point(0, 20), 25, 650), null, Color.GRAY, 0));
+        env.addCollidable(new Block(new Rectangle(new Point(775, 20), 25, 650), null, Color.GRAY, 0));
+        env.addCollidable(new Block(new Rectangle(new Point(-50, 610), 850, 20), null, Color.GRAY, 0));
+        int cols = (int) Math.ceil(Math.sqrt(count * 2.0));
+        int rows = (int) Math.ceil((double) count / cols);
+        double width = 750.0 / cols, height = 450.0 / rows;
+        for (int i = 0; i < count; i++) {
+            env.addCollidable(new Block(new Rectangle(25 + (i % cols) * width, 50 + (i / cols) * height,
+                    width * 0.9, height * 0.9), null, Color.BLACK, 1));
+        }
+        return env;
+    }
+}